@@ -0,0 +1,171 @@
+package quest.gekko.ringlogger;
+
+import quest.gekko.ringlogger.ring.ProducerRing;
+import quest.gekko.ringlogger.wait.WaitStrategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides what a producer does when its entry does not fit into the ring.
+ * <p>
+ * Producers never move the consumer position themselves. Dropping the oldest entries is
+ * delegated to the logger thread, which discards them instead of writing them.
+ */
+public final class BackpressurePolicy {
+    // Waiting for an eviction spins first, then yields, then parks
+    private static final int EVICTION_SPINS = 1024;
+    private static final int EVICTION_YIELDS = 1024;
+    private static final long BLOCK_PARK_NANOS = 1_000;
+
+    private enum Mode {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        BLOCK,
+        SPIN_THEN_DROP
+    }
+
+    private final Mode mode;
+    private final long limit;
+
+    private BackpressurePolicy(final Mode mode, final long limit) {
+        this.mode = mode;
+        this.limit = limit;
+    }
+
+    /**
+     * Drops the entry being logged; the producer never waits.
+     *
+     * @return a drop-newest policy
+     */
+    public static BackpressurePolicy dropNewest() {
+        return new BackpressurePolicy(Mode.DROP_NEWEST, 0);
+    }
+
+    /**
+     * Asks the logger thread to discard the oldest pending entries until the new one fits.
+     * The producer waits for each eviction to be carried out before asking for the next, so
+     * the new entry is only dropped if the logger thread has stopped or the producer is
+     * interrupted. While the logger thread is inside a slow writer, the producer waits for it.
+     *
+     * @return a drop-oldest policy
+     */
+    public static BackpressurePolicy dropOldest() {
+        return new BackpressurePolicy(Mode.DROP_OLDEST, 0);
+    }
+
+    /**
+     * Waits for the logger thread to free space, dropping the entry once the timeout expires.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return a block-with-timeout policy
+     */
+    public static BackpressurePolicy blockWithTimeout(final long timeout, final TimeUnit unit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+        }
+
+        return new BackpressurePolicy(Mode.BLOCK, unit.toNanos(timeout));
+    }
+
+    /**
+     * Busy-spins while retrying, dropping the entry after the given number of attempts.
+     *
+     * @param spins number of retries
+     * @return a spin-then-drop policy
+     */
+    public static BackpressurePolicy spinThenDrop(final int spins) {
+        if (spins <= 0) {
+            throw new IllegalArgumentException("Spin count must be positive: " + spins);
+        }
+
+        return new BackpressurePolicy(Mode.SPIN_THEN_DROP, spins);
+    }
+
+    /**
+     * Claims space for an entry, applying this policy if the ring is full.
+     *
+     * @param ring ring the calling producer claims from
+     * @param entryLength number of bytes to reserve
+     * @param waitStrategy logger thread wait strategy, signalled so a sleeping consumer frees space
+     * @param consumer logger thread, which drop-oldest waits for only while it is alive
+     * @return index of the claimed entry, or -1 if it was dropped
+     */
+    int claim(final ProducerRing ring, final int entryLength, final WaitStrategy waitStrategy, final Thread consumer) {
+        final int index = ring.claim(entryLength);
+
+        if (index >= 0) {
+            return index;
+        }
+
+        return switch (mode) {
+            case DROP_NEWEST -> -1;
+            case DROP_OLDEST -> evictAndRetry(ring, entryLength, waitStrategy, consumer);
+            case BLOCK -> blockAndRetry(ring, entryLength, waitStrategy);
+            case SPIN_THEN_DROP -> spinAndRetry(ring, entryLength);
+        };
+    }
+
+    private int evictAndRetry(final ProducerRing ring, final int entryLength, final WaitStrategy waitStrategy, final Thread consumer) {
+        long ticket = ring.requestEviction();
+        waitStrategy.signal();
+
+        for (int attempt = 0; ; attempt++) {
+            final int index = ring.claim(entryLength);
+
+            if (index >= 0) {
+                return index;
+            }
+
+            if (ring.isEvictionSettled(ticket)) {
+                // Entries differ in size, so keep asking until enough old ones are gone
+                ticket = ring.requestEviction();
+                waitStrategy.signal();
+                attempt = 0;
+            } else if (!consumer.isAlive() || Thread.currentThread().isInterrupted()) {
+                return -1;
+            }
+
+            if (attempt < EVICTION_SPINS) {
+                Thread.onSpinWait();
+            } else if (attempt < EVICTION_SPINS + EVICTION_YIELDS) {
+                Thread.yield();
+            } else {
+                // The consumer may have gone to sleep between the request and the signal
+                waitStrategy.signal();
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                attempt = EVICTION_SPINS + EVICTION_YIELDS;
+            }
+        }
+    }
+
+    private int blockAndRetry(final ProducerRing ring, final int entryLength, final WaitStrategy waitStrategy) {
+        final long deadline = System.nanoTime() + limit;
+
+        do {
+            waitStrategy.signal();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            final int index = ring.claim(entryLength);
+
+            if (index >= 0) {
+                return index;
+            }
+        } while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted());
+
+        return -1;
+    }
+
+    private int spinAndRetry(final ProducerRing ring, final int entryLength) {
+        for (long attempt = 0; attempt < limit; attempt++) {
+            Thread.onSpinWait();
+            final int index = ring.claim(entryLength);
+
+            if (index >= 0) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,338 @@
+package quest.gekko.ringlogger;
+
+import quest.gekko.ringlogger.model.Arguments;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.ring.ProducerRing;
+import quest.gekko.ringlogger.util.Utf8;
+import quest.gekko.ringlogger.wait.WaitStrategy;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Writable view of an entry reserved in ring memory.
+ * <p>
+ * Message bytes are written straight into the ring, without an intermediate copy, and become
+ * visible to the logging thread on {@link #commit()}. Each thread owns one claim object per
+ * logger that is reused for every entry it logs there, so a claim must be committed or aborted
+ * before the same thread claims again from the same logger, and must not be used after that.
+ * <p>
+ * Typed arguments never overflow the claim: an argument that does not fit is left out and
+ * the entry is committed flagged {@link LogEntry#FLAG_TRUNCATED}, like a cut-off message.
+ */
+public final class LogClaim {
+    private ProducerRing ring;
+    private ByteBuffer buffer;
+    private WaitStrategy waitStrategy;
+
+    // Absolute indices into the ring buffer
+    private int entryIndex;
+    private int position;
+    private int limit;
+    private int claimedLength;
+
+    private boolean active;
+
+    // Set when an argument had to be cut off or left out
+    private boolean truncated;
+
+    // Next sequence number of the owning thread on the owning logger
+    private int sequence;
+
+    // Whether the owning thread has committed an entry to the owning logger yet
+    private boolean started;
+
+    LogClaim() {
+    }
+
+    /**
+     * Points this claim at a freshly reserved entry.
+     *
+     * @param ring ring the entry was claimed from
+     * @param entryIndex index returned by the ring's claim
+     * @param claimedLength number of bytes reserved for the entry
+     * @param waitStrategy logger thread wait strategy, signalled on commit
+     */
+    void begin(final ProducerRing ring, final int entryIndex, final int claimedLength, final WaitStrategy waitStrategy) {
+        this.ring = ring;
+        this.buffer = ring.buffer();
+        this.waitStrategy = waitStrategy;
+        this.entryIndex = entryIndex;
+        this.position = entryIndex;
+        this.limit = entryIndex + claimedLength;
+        this.claimedLength = claimedLength;
+        this.active = true;
+        this.truncated = false;
+    }
+
+    /**
+     * Takes the owning thread's next sequence number on the owning logger.
+     *
+     * @return the sequence number
+     */
+    int nextSequence() {
+        return sequence++;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Returns how many more message bytes fit into this claim.
+     *
+     * @return remaining capacity in bytes
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    public LogClaim putByte(final byte value) {
+        buffer.put(advance(Byte.BYTES), value);
+        return this;
+    }
+
+    public LogClaim putShort(final short value) {
+        buffer.putShort(advance(Short.BYTES), value);
+        return this;
+    }
+
+    public LogClaim putInt(final int value) {
+        buffer.putInt(advance(Integer.BYTES), value);
+        return this;
+    }
+
+    public LogClaim putLong(final long value) {
+        buffer.putLong(advance(Long.BYTES), value);
+        return this;
+    }
+
+    public LogClaim putDouble(final double value) {
+        buffer.putDouble(advance(Double.BYTES), value);
+        return this;
+    }
+
+    /**
+     * Copies bytes into the claim.
+     *
+     * @param source array to copy from
+     * @param offset first byte to copy
+     * @param length number of bytes to copy
+     * @return this claim
+     */
+    public LogClaim putBytes(final byte[] source, final int offset, final int length) {
+        buffer.put(advance(length), source, offset, length);
+        return this;
+    }
+
+    public LogClaim putBytes(final byte[] source) {
+        return putBytes(source, 0, source.length);
+    }
+
+    /**
+     * Encodes characters as UTF-8, truncating on a code point boundary if they do not fit.
+     *
+     * @param value characters to encode
+     * @return this claim
+     */
+    public LogClaim putUtf8(final CharSequence value) {
+        ensureActive();
+        position += Utf8.encode(value, buffer, position, limit - position);
+        return this;
+    }
+
+    public LogClaim putUtf8(final char[] value, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, value.length);
+        ensureActive();
+        position += Utf8.encode(value, offset, length, buffer, position, limit - position);
+        return this;
+    }
+
+    /**
+     * Appends a typed argument to a message claimed with
+     * {@link RingLogger#claimFormat(quest.gekko.ringlogger.model.LogLevel, byte, String, int)}.
+     * Arguments are stored in binary and only rendered by the logging thread.
+     *
+     * @param value argument value
+     * @return this claim
+     */
+    public LogClaim arg(final long value) {
+        final int index = advanceArgument(Arguments.LONG_SIZE);
+
+        if (index >= 0) {
+            buffer.put(index, Arguments.TAG_LONG);
+            buffer.putLong(index + 1, value);
+        }
+
+        return this;
+    }
+
+    public LogClaim arg(final int value) {
+        final int index = advanceArgument(Arguments.INT_SIZE);
+
+        if (index >= 0) {
+            buffer.put(index, Arguments.TAG_INT);
+            buffer.putInt(index + 1, value);
+        }
+
+        return this;
+    }
+
+    public LogClaim arg(final double value) {
+        final int index = advanceArgument(Arguments.DOUBLE_SIZE);
+
+        if (index >= 0) {
+            buffer.put(index, Arguments.TAG_DOUBLE);
+            buffer.putDouble(index + 1, value);
+        }
+
+        return this;
+    }
+
+    public LogClaim arg(final boolean value) {
+        final int index = advanceArgument(Arguments.BOOLEAN_SIZE);
+
+        if (index >= 0) {
+            buffer.put(index, Arguments.TAG_BOOLEAN);
+            buffer.put(index + 1, value ? (byte) 1 : (byte) 0);
+        }
+
+        return this;
+    }
+
+    public LogClaim arg(final char value) {
+        final int index = advanceArgument(Arguments.CHAR_SIZE);
+
+        if (index >= 0) {
+            buffer.put(index, Arguments.TAG_CHAR);
+            buffer.putChar(index + 1, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Appends a string argument, truncated to whatever space the claim has left.
+     *
+     * @param value argument value
+     * @return this claim
+     */
+    public LogClaim arg(final CharSequence value) {
+        return arg(value, 0);
+    }
+
+    /**
+     * Appends a string argument, truncated so that the given number of bytes stays free for
+     * the arguments that follow it.
+     *
+     * @param value argument value
+     * @param reserved bytes to leave for later arguments
+     * @return this claim
+     */
+    LogClaim arg(final CharSequence value, final int reserved) {
+        final int index = advanceArgument(Arguments.STRING_HEADER_SIZE);
+
+        if (index >= 0) {
+            final int maxBytes = Math.min(Math.max(limit - position - reserved, 0), Arguments.MAX_STRING_LENGTH);
+            final int length = Utf8.encode(value, buffer, position, maxBytes);
+
+            // Only a string that came within a code point of the limit can have been cut off
+            if (maxBytes - length < 4 && Utf8.encodedLength(value) > length) {
+                truncated = true;
+            }
+
+            buffer.put(index, Arguments.TAG_STRING);
+            buffer.putShort(index + 1, (short) length);
+            position += length;
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the template id that opens a message claimed with
+     * {@link RingLogger#claimTemplate(quest.gekko.ringlogger.model.LogLevel, byte, int, int)}.
+     *
+     * @param templateId registered template id
+     * @return this claim
+     */
+    LogClaim template(final int templateId) {
+        final int index = advance(Arguments.TEMPLATE_SIZE);
+        buffer.put(index, Arguments.TAG_TEMPLATE);
+        buffer.putInt(index + 1, templateId);
+        return this;
+    }
+
+    /**
+     * Publishes the entry with the message bytes written so far.
+     */
+    public void commit() {
+        ensureActive();
+        active = false;
+
+        buffer.putInt(entryIndex + LogEntry.MESSAGE_LENGTH_OFFSET, position - entryIndex - LogEntry.HEADER_SIZE);
+
+        if (truncated) {
+            buffer.put(entryIndex + LogEntry.FLAGS_OFFSET, (byte) (buffer.get(entryIndex + LogEntry.FLAGS_OFFSET) | LogEntry.FLAG_TRUNCATED));
+        }
+
+        ring.commit(entryIndex, claimedLength, position - entryIndex);
+        started = true;
+        waitStrategy.signal();
+    }
+
+    /**
+     * Gives the reserved space back without logging anything.
+     */
+    public void abort() {
+        ensureActive();
+        active = false;
+
+        ring.abort(entryIndex, claimedLength);
+
+        // Nothing was lost, so hand the sequence number to the thread's next entry
+        sequence--;
+    }
+
+    private int advance(final int length) {
+        ensureActive();
+
+        if (length > limit - position) {
+            throw new BufferOverflowException();
+        }
+
+        final int index = position;
+        position += length;
+        return index;
+    }
+
+    /**
+     * Reserves space for an argument field, or marks the entry truncated if it does not fit.
+     *
+     * @param length encoded size of the field
+     * @return absolute index of the field, or -1 if it is left out
+     */
+    private int advanceArgument(final int length) {
+        ensureActive();
+
+        if (length > limit - position) {
+            truncated = true;
+            return -1;
+        }
+
+        final int index = position;
+        position += length;
+        return index;
+    }
+
+    private void ensureActive() {
+        if (!active) {
+            throw new IllegalStateException("Claim has already been committed or aborted");
+        }
+    }
+}
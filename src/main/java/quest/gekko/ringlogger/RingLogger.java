@@ -1,74 +1,1066 @@
 package quest.gekko.ringlogger;
 
+import quest.gekko.ringlogger.clock.TimestampSource;
+import quest.gekko.ringlogger.model.Arguments;
+import quest.gekko.ringlogger.model.ComponentRegistry;
+import quest.gekko.ringlogger.model.LogEntry;
 import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.TemplateRegistry;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+import quest.gekko.ringlogger.ring.LogRing;
+import quest.gekko.ringlogger.ring.MultiProducerRing;
+import quest.gekko.ringlogger.ring.ProducerRing;
+import quest.gekko.ringlogger.ring.ProducerType;
+import quest.gekko.ringlogger.ring.SingleProducerRing;
+import quest.gekko.ringlogger.ring.StripedRing;
+import quest.gekko.ringlogger.util.Utf8;
+import quest.gekko.ringlogger.wait.WaitStrategy;
+import quest.gekko.ringlogger.writer.GapDetectingWriter;
 import quest.gekko.ringlogger.writer.LogWriter;
-import quest.gekko.ringlogger.util.PaddedAtomicLong;
+import quest.gekko.ringlogger.writer.ThreadNameWriter;
 
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Cleaner;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 
 public final class RingLogger {
-    // Ring buffer configuration
-    private static final int BUFFER_SIZE = 4096;
-    private static final int RING_SIZE = 16384;
-    private static final int RING_MASK = RING_SIZE - 1; // Bitmask for fast modulo
+    // Default ring buffer configuration
+    private static final int DEFAULT_MAX_ENTRY_SIZE = 32 * 1024; // Frames are variable length, so only large entries pay for it
+    private static final int DEFAULT_CAPACITY = 16 * 1024 * 1024; // Bytes of off-heap ring memory
+    private static final int DRAIN_LIMIT = 256;
     private static final int THREAD_PRIORITY = Thread.MAX_PRIORITY - 1;
 
-    // Singleton instance
-    private static final RingLogger INSTANCE = new RingLogger();
+    // One level table entry per possible component id
+    private static final int COMPONENT_COUNT = 256;
+    private static final VarHandle COMPONENT_LEVEL = MethodHandles.arrayElementVarHandle(byte[].class);
 
-    // Thread-local scratch space for building log entries
-    private static final ThreadLocal<ByteBuffer> THREAD_LOCAL_BUFFER =
-            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    // Source of stable per-thread ordinals used to pick stripes
+    private static final AtomicInteger NEXT_PRODUCER_ORDINAL = new AtomicInteger();
 
-    // Shared ring buffer and pre-allocated entry buffers to reduce GC pressure
-    private final ByteBuffer[] ringBuffer = new ByteBuffer[RING_SIZE];
-    private final ByteBuffer[] bufferPool = new ByteBuffer[RING_SIZE];
+    // Hands the header ordinals of ended threads back to the thread dictionary
+    private static final Cleaner THREAD_CLEANER = Cleaner.create();
 
-    // Sequence counters for producer and consumer positions
-    private final PaddedAtomicLong producerSequence = new PaddedAtomicLong(0);
-    private final PaddedAtomicLong consumerSequence = new PaddedAtomicLong(0);
+    // Source of logger ids, indexing each thread's per-logger sequence counters
+    private static final AtomicInteger NEXT_LOGGER_ID = new AtomicInteger();
+
+    // Thread-local producer state, holding each thread's reusable claim
+    private static final ThreadLocal<ProducerContext> PRODUCER_CONTEXT =
+            ThreadLocal.withInitial(ProducerContext::new);
+
+    // Ring holding published entries until the logger thread writes them
+    private final LogRing ring;
+    private final int maxMessageLength;
 
     // Logging thread and control
     private final Thread loggerThread;
     private final AtomicBoolean running = new AtomicBoolean(true);
     private final LogWriter logWriter;
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier hasWork;
+
+    // Behaviour when the ring is full, and the entries it gave up on
+    private final BackpressurePolicy backpressurePolicy;
+    private final LongAdder droppedEntries = new LongAdder();
+
+    // Clock stamped into every entry, and the header flag describing its values
+    private final TimestampSource timestampSource;
+    private final byte timestampFlags;
+
+    // Whether entries carry the logging thread's ordinal
+    private final boolean recordThreads;
+
+    // Index of this logger's sequence counter in every producer's claim
+    private final int loggerId = NEXT_LOGGER_ID.getAndIncrement();
+
+    // Minimum level value per component id, checked before any encoding
+    private final byte[] componentLevels;
+
+    // Components given their own level, which a new minimum level leaves alone; guarded by this
+    private final boolean[] componentOverrides;
+    private LogLevel minimumLogLevel;
+
+    private RingLogger(final Builder builder) {
+        this.ring = builder.createRing();
+        this.maxMessageLength = builder.maxEntrySize - LogEntry.HEADER_SIZE;
+        this.recordThreads = builder.recordThreads || builder.detectGaps;
+        this.logWriter = builder.createWriter();
+        this.waitStrategy = builder.waitStrategy;
+        this.hasWork = () -> !ring.isEmpty();
+        this.backpressurePolicy = builder.backpressurePolicy;
+        this.componentLevels = builder.componentLevels();
+        this.componentOverrides = builder.componentOverrides();
+        this.minimumLogLevel = builder.minimumLogLevel;
+        this.timestampSource = builder.timestampSource;
+        this.timestampFlags = timestampSource.isEpoch() ? LogEntry.FLAG_EPOCH_TIMESTAMP : 0;
+        this.loggerThread = startLoggerThread(builder.threadFactory);
+    }
+
+    /**
+     * Write a string log message.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param message log message
+     */
+    public void writeString(final LogLevel level, final byte componentId, final String message) {
+        writeCharacters(level, componentId, message);
+    }
+
+    /**
+     * Write a character log message, such as a reused {@link StringBuilder}, without
+     * converting it to a {@code String} first. The characters are encoded as UTF-8 straight
+     * into the ring.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param message log message
+     */
+    public void writeChars(final LogLevel level, final byte componentId, final CharSequence message) {
+        writeCharacters(level, componentId, message);
+    }
+
+    /**
+     * Write a range of a character array as a log message, encoding it as UTF-8 straight
+     * into the ring.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param message array holding the message
+     * @param offset index of the first character
+     * @param length number of characters
+     */
+    public void writeChars(final LogLevel level, final byte componentId, final char[] message, final int offset, final int length) {
+        if (isFiltered(level, componentId)) return;
+
+        final ProducerContext context = PRODUCER_CONTEXT.get();
+        LogClaim claim = null;
+
+        try {
+            Objects.checkFromIndexSize(offset, length, message.length);
+
+            final int encodedLength = Utf8.encodedLength(message, offset, length);
+            claim = begin(context, level, componentId, truncation(encodedLength), Math.min(encodedLength, maxMessageLength));
+
+            if (claim != null) {
+                claim.putUtf8(message, offset, length).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Write a byte array log message.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param messageBytes log message bytes
+     */
+    public void writeBytes(final LogLevel level, final byte componentId, final byte[] messageBytes) {
+        writeMessage(level, componentId, messageBytes);
+    }
+
+    /**
+     * Reserves an entry in ring memory so the caller can encode its message in place.
+     * Fill the returned claim and then call {@link LogClaim#commit()} or {@link LogClaim#abort()}
+     * before claiming again from the same thread.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param maxLength maximum number of message bytes, capped at the logger's max entry size
+     * @return a claim positioned at the start of the message, or null if the entry is filtered or dropped
+     * @throws IllegalArgumentException if {@code maxLength} is negative
+     */
+    public LogClaim claim(final LogLevel level, final byte componentId, final int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Max length must not be negative: " + maxLength);
+        }
+
+        if (isFiltered(level, componentId)) return null;
+
+        return begin(PRODUCER_CONTEXT.get(), level, componentId, (byte) 0, Math.min(maxLength, maxMessageLength));
+    }
+
+    /**
+     * Reserves an entry for a message pattern with typed arguments. Append the arguments with
+     * the claim's {@code arg} methods and commit; they are stored in binary and only rendered
+     * into the pattern's {@code {}} placeholders on the logging thread.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param pattern message pattern
+     * @param argumentsLength encoded size of the arguments, see the sizes in {@link Arguments}
+     * @return a claim positioned after the pattern, or null if the entry is filtered or dropped
+     * @throws IllegalArgumentException if {@code argumentsLength} is negative
+     */
+    public LogClaim claimFormat(final LogLevel level, final byte componentId, final String pattern, final int argumentsLength) {
+        if (argumentsLength < 0) {
+            throw new IllegalArgumentException("Arguments length must not be negative: " + argumentsLength);
+        }
+
+        if (isFiltered(level, componentId)) return null;
+
+        final int requestedLength = Arguments.STRING_HEADER_SIZE + Utf8.encodedLength(pattern) + argumentsLength;
+        final byte flags = (byte) (LogEntry.FLAG_TYPED | truncation(requestedLength));
+        final LogClaim claim = begin(PRODUCER_CONTEXT.get(), level, componentId, flags, Math.min(requestedLength, maxMessageLength));
+        return claim == null ? null : claim.arg(pattern);
+    }
+
+    /**
+     * Reserves an entry for a registered template with typed arguments. Only the template id
+     * and the binary arguments are copied into the ring.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param templateId id returned by {@link #registerTemplate(String)}
+     * @param argumentsLength encoded size of the arguments, see the sizes in {@link Arguments}
+     * @return a claim positioned after the template id, or null if the entry is filtered or dropped
+     * @throws IllegalArgumentException if {@code argumentsLength} is negative or the template id
+     *                                  was never registered
+     */
+    public LogClaim claimTemplate(final LogLevel level, final byte componentId, final int templateId, final int argumentsLength) {
+        if (argumentsLength < 0) {
+            throw new IllegalArgumentException("Arguments length must not be negative: " + argumentsLength);
+        }
+
+        if (isFiltered(level, componentId)) return null;
+
+        return beginTemplate(level, componentId, templateId, argumentsLength);
+    }
+
+    // --- Fixed-arity template overloads ---
+    //
+    // One overload for every combination of long, double and CharSequence up to three arguments,
+    // and for up to six long arguments. Nothing is boxed or collected into an array; ints and other
+    // integral values widen to the long overloads. Each checks the filter once, before anything
+    // else, and then claims without checking it again. A string argument leaves room for the
+    // arguments after it, so an entry over the max entry size only cuts the strings short.
+
+    /**
+     * Logs a registered template with one argument without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with one argument without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with one argument without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0));
+
+            if (claim != null) {
+                claim.arg(arg0).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final double arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final CharSequence arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.sizeOf(arg1));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final long arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final double arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final CharSequence arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg1));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final long arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.LONG_SIZE).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final double arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.DOUBLE_SIZE).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with two arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final CharSequence arg1) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.sizeOf(arg1));
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.STRING_HEADER_SIZE).arg(arg1).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final double arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final double arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final double arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final CharSequence arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.sizeOf(arg1) + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.LONG_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final CharSequence arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.sizeOf(arg1) + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.DOUBLE_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final CharSequence arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.sizeOf(arg1) + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.STRING_HEADER_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final long arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final long arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final long arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final double arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final double arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final double arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final CharSequence arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg1) + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.LONG_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final CharSequence arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg1) + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.DOUBLE_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final double arg0, final CharSequence arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg1) + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1, Arguments.STRING_HEADER_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final long arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.LONG_SIZE + Arguments.LONG_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final long arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.LONG_SIZE + Arguments.DOUBLE_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final long arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.LONG_SIZE + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.LONG_SIZE + Arguments.STRING_HEADER_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final double arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.DOUBLE_SIZE + Arguments.LONG_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final double arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.DOUBLE_SIZE + Arguments.DOUBLE_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final double arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
 
-    // Global minimum log level (filtering)
-    private volatile LogLevel minimumLogLevel = LogLevel.INFO;
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.DOUBLE_SIZE + Arguments.sizeOf(arg2));
 
-    private RingLogger() {
-        // Initialize reusable buffer pool to avoid allocation at runtime
-        for (int i = 0; i < RING_SIZE; i++) {
-            bufferPool[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            if (claim != null) {
+                claim.arg(arg0, Arguments.DOUBLE_SIZE + Arguments.STRING_HEADER_SIZE).arg(arg1).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
         }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final CharSequence arg1, final long arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.sizeOf(arg1) + Arguments.LONG_SIZE);
 
-        this.logWriter = LogWriter.consoleWriter();
-        this.loggerThread = startLoggerThread();
+            if (claim != null) {
+                claim.arg(arg0, Arguments.STRING_HEADER_SIZE + Arguments.LONG_SIZE).arg(arg1, Arguments.LONG_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
     }
 
     /**
-     * Write a string log message.
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final CharSequence arg1, final double arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.sizeOf(arg1) + Arguments.DOUBLE_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.STRING_HEADER_SIZE + Arguments.DOUBLE_SIZE).arg(arg1, Arguments.DOUBLE_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with three arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final CharSequence arg0, final CharSequence arg1, final CharSequence arg2) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.sizeOf(arg0) + Arguments.sizeOf(arg1) + Arguments.sizeOf(arg2));
+
+            if (claim != null) {
+                claim.arg(arg0, Arguments.STRING_HEADER_SIZE + Arguments.STRING_HEADER_SIZE).arg(arg1, Arguments.STRING_HEADER_SIZE).arg(arg2).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with four arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final long arg2, final long arg3) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).arg(arg3).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with five arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final long arg2, final long arg3, final long arg4) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).arg(arg3).arg(arg4).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Logs a registered template with six arguments without allocating.
+     */
+    public void log(final LogLevel level, final byte componentId, final int templateId, final long arg0, final long arg1, final long arg2, final long arg3, final long arg4, final long arg5) {
+        if (isFiltered(level, componentId)) return;
+
+        LogClaim claim = null;
+
+        try {
+            claim = beginTemplate(level, componentId, templateId, Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE + Arguments.LONG_SIZE);
+
+            if (claim != null) {
+                claim.arg(arg0).arg(arg1).arg(arg2).arg(arg3).arg(arg4).arg(arg5).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Registers a message template shared by all loggers in the process.
      *
-     * @param level log level
-     * @param componentId component identifier
-     * @param message log message
+     * @param template message pattern with {@code {}} placeholders
+     * @return compact id to log the template with
      */
-    public void writeString(final LogLevel level, final byte componentId, final String message) {
-        writeMessage(level, componentId, message.getBytes(StandardCharsets.UTF_8));
+    public static int registerTemplate(final String template) {
+        return TemplateRegistry.getInstance().register(template);
     }
 
     /**
-     * Write a byte array log message.
+     * Names a component id for decoded output; file sinks record the name alongside entries.
      *
-     * @param level log level
      * @param componentId component identifier
-     * @param messageBytes log message bytes
+     * @param name component name
      */
-    public void writeBytes(final LogLevel level, final byte componentId, final byte[] messageBytes) {
-        writeMessage(level, componentId, messageBytes);
+    public static void registerComponent(final byte componentId, final String name) {
+        ComponentRegistry.getInstance().register(componentId, name);
     }
 
     /**
@@ -79,119 +1071,577 @@ public final class RingLogger {
      * @param messageBytes log message bytes
      */
     private void writeMessage(final LogLevel level, final byte componentId, final byte[] messageBytes) {
-        if (level.getValue() < minimumLogLevel.getValue()) return;
+        if (isFiltered(level, componentId)) return;
+
+        final ProducerContext context = PRODUCER_CONTEXT.get();
+        LogClaim claim = null;
 
         try {
-            final ByteBuffer buffer = THREAD_LOCAL_BUFFER.get();
-            buffer.clear();
+            claim = begin(context, level, componentId, truncation(messageBytes.length), Math.min(messageBytes.length, maxMessageLength));
+
+            if (claim != null) {
+                claim.putBytes(messageBytes, 0, claim.remaining()).commit();
+            }
+        } catch (final Exception e) {
+            fail(claim, e);
+        }
+    }
 
-            // Encode log fields into buffer
-            buffer.putLong(System.nanoTime());
-            buffer.put(level.getValue());
-            buffer.put(componentId);
+    /**
+     * Internal method to write character log messages, encoding them as UTF-8 directly
+     * into the ring without allocating.
+     *
+     * @param level log level
+     * @param componentId component identifier
+     * @param message log message
+     */
+    private void writeCharacters(final LogLevel level, final byte componentId, final CharSequence message) {
+        if (isFiltered(level, componentId)) return;
 
-            final int availableSpace = buffer.capacity() - buffer.position() - 4;
-            final int messageLength = Math.min(messageBytes.length, availableSpace);
+        final ProducerContext context = PRODUCER_CONTEXT.get();
+        LogClaim claim = null;
 
-            buffer.putInt(messageLength);
-            buffer.put(messageBytes, 0, messageLength);
-            buffer.flip();
+        try {
+            final int encodedLength = Utf8.encodedLength(message);
+            claim = begin(context, level, componentId, truncation(encodedLength), Math.min(encodedLength, maxMessageLength));
 
-            publishLogEntry(buffer);
+            if (claim != null) {
+                claim.putUtf8(message).commit();
+            }
         } catch (final Exception e) {
-            System.err.println("Logging failure: " + e.getMessage());
+            fail(claim, e);
+        }
+    }
+
+    /**
+     * Reserves an entry for a registered template once the caller has checked the filter.
+     *
+     * @return a claim positioned after the template id, or null if the entry is dropped
+     */
+    private LogClaim beginTemplate(final LogLevel level, final byte componentId, final int templateId, final int argumentsLength) {
+        // An unknown id would only fail on the logging thread, taking its batch down with it
+        if (!TemplateRegistry.getInstance().isRegistered(templateId)) {
+            throw new IllegalArgumentException("Unknown template id: " + templateId);
         }
+
+        final int requestedLength = Arguments.TEMPLATE_SIZE + argumentsLength;
+        final byte flags = (byte) (LogEntry.FLAG_TYPED | truncation(requestedLength));
+        final LogClaim claim = begin(PRODUCER_CONTEXT.get(), level, componentId, flags, Math.min(requestedLength, maxMessageLength));
+        return claim == null ? null : claim.template(templateId);
     }
 
     /**
-     * Places a log buffer into the ring for the background thread to consume.
+     * Claims an entry from the calling thread's ring and encodes the log fields into it.
      *
-     * @param buffer ByteBuffer containing log entry
+     * @param context calling thread's producer state
+     * @param level log level
+     * @param componentId component identifier
+     * @param flags header flag bits
+     * @param messageLength number of message bytes to reserve
+     * @return the thread's claim positioned at the message, or null if the ring had no room
      */
-    private void publishLogEntry(final ByteBuffer buffer) {
-        final long sequence = producerSequence.get();
+    private LogClaim begin(final ProducerContext context, final LogLevel level, final byte componentId,
+                           final byte flags, final int messageLength) {
+        final LogClaim claim = context.claim(loggerId);
+
+        if (claim.isActive()) {
+            throw new IllegalStateException("Previous claim of this thread on this logger was not committed");
+        }
+
+        final ProducerRing target = ring.forProducer(context.ordinal);
+        final int entryLength = LogEntry.HEADER_SIZE + messageLength;
+
+        // Read the clock first: once ring space is claimed, nothing may throw before begin
+        final long timestamp = timestampSource.timestamp();
+
+        // Dropped entries keep their sequence number, leaving a gap readers can detect
+        final int sequence = claim.nextSequence();
+        final int index = backpressurePolicy.claim(target, entryLength, waitStrategy, loggerThread);
 
-        // Drop oldest entry if ring is full
-        if (sequence - consumerSequence.get() >= RING_SIZE) {
-            consumerSequence.incrementAndGet();
+        if (index < 0) {
+            droppedEntries.increment();
+            return null;
         }
 
-        final int index = (int) (sequence & RING_MASK);
-        final ByteBuffer entryBuffer = bufferPool[index];
-        entryBuffer.clear();
-        entryBuffer.put(buffer);
-        entryBuffer.flip();
+        claim.begin(target, index, entryLength, waitStrategy);
+
+        // Until the thread's first entry is committed, flag it so readers reset what they know of the ordinal
+        final byte threadFlags = recordThreads && !claim.isStarted() ? LogEntry.FLAG_THREAD_START : 0;
+
+        // Encode log fields; the message length is filled in on commit
+        return claim.putLong(timestamp)
+                .putByte(level.getValue())
+                .putByte(componentId)
+                .putByte((byte) (flags | timestampFlags | threadFlags))
+                .putShort(recordThreads ? context.threadOrdinal() : ThreadDictionary.NO_THREAD)
+                .putInt(sequence)
+                .putInt(0);
+    }
+
+    /**
+     * Flags messages that do not fit the logger's max entry size, so readers can tell a
+     * cut-off message from a complete one.
+     *
+     * @param messageLength full length of the message in bytes
+     * @return {@link LogEntry#FLAG_TRUNCATED} if the message will be truncated, otherwise 0
+     */
+    private byte truncation(final int messageLength) {
+        return messageLength > maxMessageLength ? LogEntry.FLAG_TRUNCATED : 0;
+    }
+
+    /**
+     * Reports a failed write after releasing the claim the failing call started, if any.
+     * A claim the caller still holds open from an earlier call is left alone.
+     *
+     * @param claim claim returned to the failing call, or null if it never got one
+     * @param e cause of the failure
+     */
+    private static void fail(final LogClaim claim, final Exception e) {
+        if (claim != null && claim.isActive()) {
+            claim.abort();
+        }
 
-        ringBuffer[index] = entryBuffer;
-        producerSequence.incrementAndGet();
+        System.err.println("Logging failure: " + e.getMessage());
     }
 
     /**
      * Starts the background logger thread.
      *
+     * @param threadFactory factory creating the logging thread
      * @return configured logging thread
      */
-    private Thread startLoggerThread() {
-        final Thread thread = new Thread(() -> {
-            long nextSequence = consumerSequence.get();
+    private Thread startLoggerThread(final ThreadFactory threadFactory) {
+        final Thread thread = threadFactory.newThread(() -> {
+            int idleCount = 0;
 
-            while (running.get() || nextSequence < producerSequence.get()) {
+            while (running.get() || !ring.isEmpty()) {
                 try {
-                    if (nextSequence < producerSequence.get()) {
-                        final int index = (int) (nextSequence & RING_MASK);
-                        final ByteBuffer entry = ringBuffer[index];
-
-                        if (entry != null) {
-                            logWriter.write(entry);
-                            nextSequence++;
-                            consumerSequence.set(nextSequence);
+                    if (ring.drain(logWriter, DRAIN_LIMIT) == 0) {
+                        // Saturate rather than wrap, so a long idle stretch keeps its back-off
+                        if (idleCount < Integer.MAX_VALUE) {
+                            idleCount++;
                         }
+
+                        // No new logs yet; let the sink catch up on timed work, then back off
+                        logWriter.onIdle();
+                        waitStrategy.idle(idleCount, hasWork);
                     } else {
-                        // No new logs yet; yield briefly
-                        LockSupport.parkNanos(1);
+                        idleCount = 0;
                     }
                 } catch (final Exception e) {
                     System.err.println("Logger thread error: " + e.getMessage());
                 }
             }
+
+            try {
+                logWriter.close();
+            } catch (final Exception e) {
+                System.err.println("Logger thread error: " + e.getMessage());
+            }
         });
 
-        thread.setName("ringlogger-worker");
-        thread.setPriority(THREAD_PRIORITY);
-        thread.setDaemon(true);
         thread.start();
         return thread;
     }
 
     /**
-     * Performs a clean shutdown of the logger thread.
+     * Performs a clean shutdown of the logger thread and closes the logger's timestamp source.
      */
     public void shutdown() {
         running.set(false);
-        loggerThread.interrupt();
+
+        // Wake the logger thread without interrupting it; an interrupt would close file channels
+        waitStrategy.signal();
 
         try {
             loggerThread.join(1000);
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            // Stops the ticker thread of clocks that have one
+            timestampSource.close();
         }
     }
 
     /**
-     * Retrieves the singleton RingLogger instance.
+     * Returns how many entries producers dropped because the ring was full.
+     *
+     * @return number of entries rejected at the producer side
+     */
+    public long getDroppedCount() {
+        return droppedEntries.sum();
+    }
+
+    /**
+     * Returns how many queued entries the logging thread discarded to make room for newer
+     * ones under {@link BackpressurePolicy#dropOldest()}.
+     *
+     * @return number of evicted entries
+     */
+    public long getEvictedCount() {
+        return ring.evictedCount();
+    }
+
+    /**
+     * Creates a builder for an independent RingLogger with its own ring and logging thread.
+     *
+     * @return a new Builder with default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retrieves the default RingLogger instance, created with default settings on first use.
      *
      * @return RingLogger singleton instance
      */
     public static RingLogger getInstance() {
-        return INSTANCE;
+        return DefaultInstanceHolder.INSTANCE;
     }
 
     /**
-     * Dynamically adjust log filtering at runtime.
+     * Dynamically adjust log filtering at runtime. Components given their own level, through
+     * the builder or {@link #setComponentLogLevel(byte, LogLevel)}, keep it.
      *
      * @param level minimum log level to capture
      */
-    public void setMinimumLogLevel(final LogLevel level) {
-        this.minimumLogLevel = level;
+    public synchronized void setMinimumLogLevel(final LogLevel level) {
+        minimumLogLevel = Objects.requireNonNull(level, "level");
+
+        for (int componentId = 0; componentId < COMPONENT_COUNT; componentId++) {
+            if (!componentOverrides[componentId]) {
+                COMPONENT_LEVEL.setOpaque(componentLevels, componentId, level.getValue());
+            }
+        }
+    }
+
+    /**
+     * Dynamically adjust log filtering for a single component at runtime. The level holds
+     * until {@link #clearComponentLogLevel(byte)}, whatever the minimum level is set to.
+     *
+     * @param componentId component identifier
+     * @param level minimum log level to capture for the component
+     */
+    public synchronized void setComponentLogLevel(final byte componentId, final LogLevel level) {
+        componentOverrides[componentId & 0xFF] = true;
+        COMPONENT_LEVEL.setOpaque(componentLevels, componentId & 0xFF, level.getValue());
+    }
+
+    /**
+     * Drops a component's own level, returning it to the minimum log level.
+     *
+     * @param componentId component identifier
+     */
+    public synchronized void clearComponentLogLevel(final byte componentId) {
+        componentOverrides[componentId & 0xFF] = false;
+        COMPONENT_LEVEL.setOpaque(componentLevels, componentId & 0xFF, minimumLogLevel.getValue());
+    }
+
+    /**
+     * Returns the minimum log level currently captured for a component.
+     *
+     * @param componentId component identifier
+     * @return minimum log level of the component
+     */
+    public LogLevel getComponentLogLevel(final byte componentId) {
+        return LogLevel.fromByte((byte) COMPONENT_LEVEL.getOpaque(componentLevels, componentId & 0xFF));
+    }
+
+    /**
+     * Checks the component's level table entry; one array load and compare.
+     *
+     * @param level log level of the entry
+     * @param componentId component identifier
+     * @return true if the entry must not be logged
+     */
+    private boolean isFiltered(final LogLevel level, final byte componentId) {
+        return level.getValue() < (byte) COMPONENT_LEVEL.getOpaque(componentLevels, componentId & 0xFF);
+    }
+
+    /**
+     * Configures and creates RingLogger instances.
+     */
+    public static final class Builder {
+        private int capacity = DEFAULT_CAPACITY;
+        private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+        private ProducerType producerType = ProducerType.MULTI;
+        private int stripes; // 0 picks one per CPU, as many as the capacity allows
+        private LogWriter logWriter = LogWriter.consoleWriter();
+        private WaitStrategy waitStrategy = WaitStrategy.backoff();
+        private ThreadFactory threadFactory = Builder::newLoggerThread;
+        private BackpressurePolicy backpressurePolicy = BackpressurePolicy.dropNewest();
+        private LogLevel minimumLogLevel = LogLevel.INFO;
+        private TimestampSource timestampSource = TimestampSource.calibratedEpoch();
+        private boolean recordThreads;
+        private boolean detectGaps;
+        private final Map<Byte, LogLevel> componentLogLevels = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the size of the off-heap ring memory. For striped loggers this is shared by all stripes.
+         *
+         * @param capacity ring size in bytes, must be a power of two
+         * @return this builder
+         */
+        public Builder capacity(final int capacity) {
+            if (Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+            }
+
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the largest encoded entry, header included; longer messages are truncated
+         * and flagged with {@link LogEntry#FLAG_TRUNCATED}. Defaults to 32 KB; entries only occupy
+         * as many ring bytes as they actually use.
+         *
+         * @param maxEntrySize maximum entry size in bytes
+         * @return this builder
+         */
+        public Builder maxEntrySize(final int maxEntrySize) {
+            if (maxEntrySize <= LogEntry.HEADER_SIZE) {
+                throw new IllegalArgumentException("Max entry size must exceed the " + LogEntry.HEADER_SIZE + "-byte header: " + maxEntrySize);
+            }
+
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Sets how many threads may log and how they share the ring.
+         *
+         * @param producerType producer mode
+         * @return this builder
+         */
+        public Builder producerType(final ProducerType producerType) {
+            this.producerType = Objects.requireNonNull(producerType, "producerType");
+            return this;
+        }
+
+        /**
+         * Sets the number of stripes used by {@link ProducerType#STRIPED}. Defaults to the CPU
+         * count rounded up to a power of two, fewer if a stripe would not hold a max-size entry.
+         *
+         * @param stripes stripe count, must be a power of two
+         * @return this builder
+         */
+        public Builder stripes(final int stripes) {
+            if (Integer.bitCount(stripes) != 1) {
+                throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+            }
+
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Sets the destination the logging thread writes entries to.
+         *
+         * @param logWriter log writer
+         * @return this builder
+         */
+        public Builder writer(final LogWriter logWriter) {
+            this.logWriter = Objects.requireNonNull(logWriter, "logWriter");
+            return this;
+        }
+
+        /**
+         * Sets what the logging thread does while the ring is empty. Defaults to
+         * {@link WaitStrategy#backoff()}.
+         *
+         * @param waitStrategy wait strategy
+         * @return this builder
+         */
+        public Builder waitStrategy(final WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+            return this;
+        }
+
+        /**
+         * Sets what producers do when the ring is full. Defaults to
+         * {@link BackpressurePolicy#dropNewest()}.
+         *
+         * @param backpressurePolicy backpressure policy
+         * @return this builder
+         */
+        public Builder backpressurePolicy(final BackpressurePolicy backpressurePolicy) {
+            this.backpressurePolicy = Objects.requireNonNull(backpressurePolicy, "backpressurePolicy");
+            return this;
+        }
+
+        /**
+         * Sets the factory that creates the logging thread.
+         *
+         * @param threadFactory thread factory
+         * @return this builder
+         */
+        public Builder threadFactory(final ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory, "threadFactory");
+            return this;
+        }
+
+        /**
+         * Sets the clock entries are stamped with. Defaults to
+         * {@link TimestampSource#calibratedEpoch()}. The logger closes it on shutdown.
+         *
+         * @param timestampSource timestamp source
+         * @return this builder
+         */
+        public Builder timestampSource(final TimestampSource timestampSource) {
+            this.timestampSource = Objects.requireNonNull(timestampSource, "timestampSource");
+            return this;
+        }
+
+        /**
+         * Stamps every entry with a compact ordinal of the thread that logged it. The logging
+         * thread announces each ordinal's thread name once, in a synthetic entry flagged
+         * {@link LogEntry#FLAG_THREAD_NAME}, before the first entry that uses it.
+         *
+         * @param recordThreads whether to record producer threads
+         * @return this builder
+         */
+        public Builder recordThreads(final boolean recordThreads) {
+            this.recordThreads = recordThreads;
+            return this;
+        }
+
+        /**
+         * Reports lost entries to the writer. Every entry carries a sequence number per
+         * producer thread; when one or more entries of a thread were dropped or evicted, a
+         * synthetic entry flagged {@link LogEntry#FLAG_GAP} stating how many were lost is
+         * written before the next entry of that thread. Implies thread ordinals in the header.
+         *
+         * @param detectGaps whether to report lost entries
+         * @return this builder
+         */
+        public Builder detectGaps(final boolean detectGaps) {
+            this.detectGaps = detectGaps;
+            return this;
+        }
+
+        /**
+         * Sets the initial minimum log level.
+         *
+         * @param minimumLogLevel minimum log level to capture
+         * @return this builder
+         */
+        public Builder minimumLogLevel(final LogLevel minimumLogLevel) {
+            this.minimumLogLevel = Objects.requireNonNull(minimumLogLevel, "minimumLogLevel");
+            return this;
+        }
+
+        /**
+         * Sets the initial minimum log level of one component, overriding
+         * {@link #minimumLogLevel(LogLevel)} for it.
+         *
+         * @param componentId component identifier
+         * @param level minimum log level to capture for the component
+         * @return this builder
+         */
+        public Builder componentLogLevel(final byte componentId, final LogLevel level) {
+            componentLogLevels.put(componentId, Objects.requireNonNull(level, "level"));
+            return this;
+        }
+
+        /**
+         * Allocates the ring and starts the logging thread.
+         *
+         * @return a new RingLogger
+         */
+        public RingLogger build() {
+            return new RingLogger(this);
+        }
+
+        private LogWriter createWriter() {
+            // Gap markers pass through the thread announcements, never the other way round
+            final LogWriter writer = recordThreads ? new ThreadNameWriter(logWriter) : logWriter;
+            return detectGaps ? new GapDetectingWriter(writer) : writer;
+        }
+
+        private byte[] componentLevels() {
+            final byte[] levels = new byte[COMPONENT_COUNT];
+            Arrays.fill(levels, minimumLogLevel.getValue());
+            componentLogLevels.forEach((componentId, level) -> levels[componentId & 0xFF] = level.getValue());
+            return levels;
+        }
+
+        private boolean[] componentOverrides() {
+            final boolean[] overrides = new boolean[COMPONENT_COUNT];
+            componentLogLevels.keySet().forEach(componentId -> overrides[componentId & 0xFF] = true);
+            return overrides;
+        }
+
+        private int defaultStripes() {
+            final int perCpu = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+            return Math.min(perCpu, StripedRing.maxStripes(capacity, maxEntrySize));
+        }
+
+        private LogRing createRing() {
+            return switch (producerType) {
+                case SINGLE -> new SingleProducerRing(capacity, maxEntrySize);
+                case MULTI -> new MultiProducerRing(capacity, maxEntrySize);
+                case STRIPED -> new StripedRing(stripes > 0 ? stripes : defaultStripes(), capacity, maxEntrySize);
+            };
+        }
+
+        private static Thread newLoggerThread(final Runnable task) {
+            final Thread thread = new Thread(task);
+            thread.setName("ringlogger-worker");
+            thread.setPriority(THREAD_PRIORITY);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Lazily creates the default instance so processes that never log pay nothing.
+     */
+    private static final class DefaultInstanceHolder {
+        private static final RingLogger INSTANCE = builder().build();
+    }
+
+    /**
+     * Per-thread producer state: the thread's ordinal and one reusable claim per logger, so a
+     * claim left open on one logger never blocks or gets aborted by writes to another.
+     */
+    private static final class ProducerContext {
+        private final int ordinal = NEXT_PRODUCER_ORDINAL.getAndIncrement();
+        private LogClaim[] claims = new LogClaim[0];
+
+        // Header form of the ordinal, acquired with the thread's name by the first logger recording threads
+        private short threadOrdinal = ThreadDictionary.NO_THREAD;
+
+        private short threadOrdinal() {
+            if (threadOrdinal == ThreadDictionary.NO_THREAD) {
+                final ThreadDictionary dictionary = ThreadDictionary.getInstance();
+                final int headerOrdinal = dictionary.acquire(Thread.currentThread().getName());
+
+                // The context is only reachable through its thread, so it is collected once the thread ends
+                THREAD_CLEANER.register(this, () -> dictionary.release(headerOrdinal));
+                threadOrdinal = (short) headerOrdinal;
+            }
+
+            return threadOrdinal;
+        }
+
+        private LogClaim claim(final int loggerId) {
+            if (loggerId >= claims.length) {
+                claims = Arrays.copyOf(claims, loggerId + 1);
+            }
+
+            LogClaim claim = claims[loggerId];
+
+            if (claim == null) {
+                claim = new LogClaim();
+                claims[loggerId] = claim;
+            }
+
+            return claim;
+        }
     }
-}
\ No newline at end of file
+}
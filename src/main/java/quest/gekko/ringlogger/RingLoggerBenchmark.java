@@ -3,12 +3,14 @@ package quest.gekko.ringlogger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.slf4j.LoggerFactory;
 import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.ring.ProducerType;
 
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
@@ -25,6 +27,7 @@ public class RingLoggerBenchmark {
     private static final byte COMPONENT_ID = 1;
 
     private RingLogger ringLogger;
+    private RingLogger singleProducerLogger;
     private static Logger log4jLogger;
     private static org.slf4j.Logger slf4jLogger;
 
@@ -36,10 +39,16 @@ public class RingLoggerBenchmark {
     private byte[] mediumBytes;
     private byte[] longBytes;
 
+    private int fillTemplate;
+    private int sixLongTemplate;
+    private long orderId;
+
     @Setup(Level.Trial)
     public void setupTrial() {
         ringLogger = RingLogger.getInstance();
         ringLogger.setMinimumLogLevel(LogLevel.TRACE);
+        singleProducerLogger = RingLogger.builder().producerType(ProducerType.SINGLE).build();
+        singleProducerLogger.setMinimumLogLevel(LogLevel.TRACE);
         log4jLogger = LogManager.getLogger(RingLoggerBenchmark.class);
         slf4jLogger = LoggerFactory.getLogger(RingLoggerBenchmark.class);
 
@@ -50,11 +59,15 @@ public class RingLoggerBenchmark {
         shortBytes = shortMessage.getBytes(StandardCharsets.UTF_8);
         mediumBytes = mediumMessage.getBytes(StandardCharsets.UTF_8);
         longBytes = longMessage.getBytes(StandardCharsets.UTF_8);
+
+        fillTemplate = RingLogger.registerTemplate("order {} filled at {} by {}");
+        sixLongTemplate = RingLogger.registerTemplate("{} {} {} {} {} {}");
     }
 
     @TearDown(Level.Trial)
     public void teardownTrial() {
         ringLogger.shutdown();
+        singleProducerLogger.shutdown();
     }
 
     // --- RingLogger Benchmarks ---
@@ -89,6 +102,64 @@ public class RingLoggerBenchmark {
         ringLogger.writeBytes(LogLevel.INFO, COMPONENT_ID, longBytes);
     }
 
+    @Benchmark
+    public void ringLoggerLongClaim() {
+        final LogClaim claim = ringLogger.claim(LogLevel.INFO, COMPONENT_ID, longBytes.length);
+
+        if (claim != null) {
+            claim.putBytes(longBytes).commit();
+        }
+    }
+
+    // --- Fixed-Arity Template Benchmarks (expect 0 B/op under -prof gc) ---
+
+    @Benchmark
+    public void ringLoggerTemplateLongDoubleString() {
+        ringLogger.log(LogLevel.INFO, COMPONENT_ID, fillTemplate, ++orderId, 101.25, shortMessage);
+    }
+
+    @Benchmark
+    public void ringLoggerTemplateSixLongs() {
+        ringLogger.log(LogLevel.INFO, COMPONENT_ID, sixLongTemplate, ++orderId, 2, 3, 4, 5, 6);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscTemplateLongDoubleString() {
+        singleProducerLogger.log(LogLevel.INFO, COMPONENT_ID, fillTemplate, ++orderId, 101.25, shortMessage);
+    }
+
+    // --- Single-Producer RingLogger Benchmarks ---
+
+    @Benchmark
+    public void ringLoggerSpscShortString() {
+        singleProducerLogger.writeString(LogLevel.INFO, COMPONENT_ID, shortMessage);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscMediumString() {
+        singleProducerLogger.writeString(LogLevel.INFO, COMPONENT_ID, mediumMessage);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscLongString() {
+        singleProducerLogger.writeString(LogLevel.INFO, COMPONENT_ID, longMessage);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscShortBytes() {
+        singleProducerLogger.writeBytes(LogLevel.INFO, COMPONENT_ID, shortBytes);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscMediumBytes() {
+        singleProducerLogger.writeBytes(LogLevel.INFO, COMPONENT_ID, mediumBytes);
+    }
+
+    @Benchmark
+    public void ringLoggerSpscLongBytes() {
+        singleProducerLogger.writeBytes(LogLevel.INFO, COMPONENT_ID, longBytes);
+    }
+
     // --- Log4j Benchmarks ---
 
     @Benchmark
@@ -149,6 +220,7 @@ public class RingLoggerBenchmark {
     public static void main(String[] args) throws RunnerException {
         final Options options = new OptionsBuilder()
                 .include(RingLoggerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
                 .forks(1)
                 .build();
 
@@ -0,0 +1,65 @@
+package quest.gekko.ringlogger;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.ring.ProducerType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per-call producer cost as the number of logging threads grows.
+ * Run {@link #main} to sweep 4, 16 and 64 threads for each ring mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class RingLoggerContentionBenchmark {
+    private static final byte COMPONENT_ID = 1;
+    private static final int[] THREAD_COUNTS = {4, 16, 64};
+
+    @Param({"shared", "striped"})
+    private String mode;
+
+    private RingLogger ringLogger;
+    private byte[] message;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        ringLogger = RingLogger.builder()
+                .producerType(mode.equals("striped") ? ProducerType.STRIPED : ProducerType.MULTI)
+                .stripes(64)
+                .build();
+        ringLogger.setMinimumLogLevel(LogLevel.TRACE);
+        message = "order filled at 101.25 qty 300".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardownTrial() {
+        ringLogger.shutdown();
+    }
+
+    @Benchmark
+    public void ringLoggerContended() {
+        ringLogger.writeBytes(LogLevel.INFO, COMPONENT_ID, message);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (final int threads : THREAD_COUNTS) {
+            final Options options = new OptionsBuilder()
+                    .include(RingLoggerContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .forks(1)
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package quest.gekko.ringlogger;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import quest.gekko.ringlogger.format.BlockCompressor;
+import quest.gekko.ringlogger.format.CompressedSegmentReader;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures background compression of a closed segment and random reads from the result.
+ * Each {@link #compressSegment} call compresses {@link #SEGMENT_SIZE} bytes of synthetic
+ * entries, so segment throughput times 8 MiB gives the compressor's bandwidth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class SegmentCompressionBenchmark {
+    private static final int SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    @Param({"1", "6"})
+    private int level;
+
+    @Param({"65536", "262144"})
+    private int blockSize;
+
+    private ByteBuffer segment;
+    private BlockCompressor compressor;
+    private Path compressedFile;
+    private CompressedSegmentReader reader;
+    private long nextOffset;
+
+    // Discards output after counting it, so only the codec is measured
+    private final WritableByteChannel sink = new WritableByteChannel() {
+        @Override
+        public int write(final ByteBuffer source) {
+            final int length = source.remaining();
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        segment = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+        long timestamp = System.nanoTime();
+        int sequence = 0;
+
+        // Log-shaped data: repetitive text with changing numbers, as a real segment holds
+        while (true) {
+            final String message = "order " + (100_000 + sequence * 7) + " filled at " + (101.25 + sequence % 50) + " qty " + (sequence % 1000);
+            final ByteBuffer entry = LogEntry.encode(timestamp, LogLevel.INFO, (byte) (sequence % 4), (byte) 0,
+                    (short) (sequence % 8), sequence, message.getBytes(StandardCharsets.UTF_8));
+
+            if (entry.remaining() > segment.remaining()) {
+                break;
+            }
+
+            segment.put(entry);
+            timestamp += 250 + sequence % 1000;
+            sequence++;
+        }
+
+        segment.flip();
+        compressor = new BlockCompressor(level, blockSize);
+
+        compressedFile = Files.createTempFile("ringlogger-compression", ".rlz");
+        try (FileChannel output = FileChannel.open(compressedFile, StandardOpenOption.WRITE)) {
+            compressor.compress(segment, output);
+        }
+        reader = new CompressedSegmentReader(compressedFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardownTrial() throws IOException {
+        compressor.close();
+        reader.close();
+        Files.deleteIfExists(compressedFile);
+    }
+
+    @Benchmark
+    public long compressSegment() throws IOException {
+        return compressor.compress(segment, sink);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public ByteBuffer seekAndInflate() throws IOException {
+        nextOffset = (nextOffset + 1_000_003) % reader.rawLength();
+        return reader.seek(nextOffset);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SegmentCompressionBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
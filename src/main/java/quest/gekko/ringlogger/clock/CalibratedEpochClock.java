@@ -0,0 +1,80 @@
+package quest.gekko.ringlogger.clock;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+
+/**
+ * Turns {@link System#nanoTime()} into epoch nanoseconds with a cached offset.
+ * <p>
+ * Producers only read the offset and the time of the last calibration. Once the offset is
+ * older than the resync interval, the first producer to notice claims the recalibration
+ * with a CAS and queries the wall clock; every other producer keeps using the old offset.
+ * A resync may step timestamps by however far the two clocks drifted apart.
+ */
+public final class CalibratedEpochClock implements TimestampSource {
+    private static final VarHandle NEXT_SYNC;
+
+    static {
+        try {
+            NEXT_SYNC = MethodHandles.lookup().findVarHandle(CalibratedEpochClock.class, "nextSync", long.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long resyncIntervalNanos;
+
+    // Epoch nanoseconds minus nanoTime at the last calibration
+    private volatile long offset;
+
+    // nanoTime after which the offset is recalibrated
+    private volatile long nextSync;
+
+    /**
+     * Creates a calibrated clock.
+     *
+     * @param resyncIntervalNanos time between calibrations against the wall clock
+     */
+    public CalibratedEpochClock(final long resyncIntervalNanos) {
+        if (resyncIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Resync interval must be positive: " + resyncIntervalNanos);
+        }
+
+        this.resyncIntervalNanos = resyncIntervalNanos;
+        this.offset = calibrate();
+        this.nextSync = System.nanoTime() + resyncIntervalNanos;
+    }
+
+    @Override
+    public long timestamp() {
+        final long now = System.nanoTime();
+        final long sync = nextSync;
+
+        if (now - sync >= 0 && NEXT_SYNC.compareAndSet(this, sync, now + resyncIntervalNanos)) {
+            offset = calibrate();
+        }
+
+        return now + offset;
+    }
+
+    @Override
+    public boolean isEpoch() {
+        return true;
+    }
+
+    /**
+     * Measures the epoch offset, bracketing the wall clock read between two nanoTime reads
+     * to halve the error.
+     *
+     * @return epoch nanoseconds minus nanoTime
+     */
+    static long calibrate() {
+        final long before = System.nanoTime();
+        final Instant wallClock = Instant.now();
+        final long after = System.nanoTime();
+        final long epochNanos = wallClock.getEpochSecond() * 1_000_000_000L + wallClock.getNano();
+
+        return epochNanos - (before + (after - before) / 2);
+    }
+}
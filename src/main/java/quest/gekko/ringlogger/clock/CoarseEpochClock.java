@@ -0,0 +1,76 @@
+package quest.gekko.ringlogger.clock;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Epoch clock that a ticker thread refreshes at a fixed interval.
+ * <p>
+ * Producers read the cached value with a single volatile load and never touch a system
+ * clock, so entries logged within one tick share a timestamp. The ticker is a daemon
+ * thread and stops on {@link #close()}, which the owning logger calls on shutdown.
+ */
+public final class CoarseEpochClock implements TimestampSource {
+    private final long tickNanos;
+    private final Thread ticker;
+
+    private volatile long now;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a coarse clock and starts its ticker thread.
+     *
+     * @param tickNanos time between refreshes of the cached timestamp
+     */
+    public CoarseEpochClock(final long tickNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick interval must be positive: " + tickNanos);
+        }
+
+        this.tickNanos = tickNanos;
+        this.now = tick(CalibratedEpochClock.calibrate());
+
+        this.ticker = new Thread(this::run, "ringlogger-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long timestamp() {
+        return now;
+    }
+
+    @Override
+    public boolean isEpoch() {
+        return true;
+    }
+
+    /**
+     * Stops the ticker thread; the clock keeps returning the last cached timestamp.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void run() {
+        // Recalibrate about once a second; in between, advance from nanoTime
+        final long ticksPerSync = Math.max(1, 1_000_000_000L / tickNanos);
+        long offset = CalibratedEpochClock.calibrate();
+        long ticks = 0;
+
+        while (running) {
+            LockSupport.parkNanos(this, tickNanos);
+
+            if (++ticks % ticksPerSync == 0) {
+                offset = CalibratedEpochClock.calibrate();
+            }
+
+            now = tick(offset);
+        }
+    }
+
+    private static long tick(final long offset) {
+        return System.nanoTime() + offset;
+    }
+}
@@ -0,0 +1,66 @@
+package quest.gekko.ringlogger.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supplies the timestamp stamped into every entry on the producer's hot path.
+ * <p>
+ * A logger owns the source it was built with and closes it on shutdown, so sources backed
+ * by a thread must not be shared between loggers.
+ */
+@FunctionalInterface
+public interface TimestampSource extends AutoCloseable {
+    /**
+     * Called by a producer for every entry it logs.
+     *
+     * @return timestamp in nanoseconds
+     */
+    long timestamp();
+
+    /**
+     * Tells readers how to interpret the timestamps.
+     *
+     * @return true if timestamps are nanoseconds since the Unix epoch, false if they are
+     * only meaningful relative to each other
+     */
+    default boolean isEpoch() {
+        return false;
+    }
+
+    /**
+     * Releases whatever keeps the source up to date. Called once the logger has shut down.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Stamps raw {@link System#nanoTime()} values: the cheapest precise source, but not
+     * related to wall-clock time.
+     *
+     * @return a monotonic TimestampSource
+     */
+    static TimestampSource monotonic() {
+        return System::nanoTime;
+    }
+
+    /**
+     * Stamps epoch nanoseconds derived from {@link System#nanoTime()} and an offset that is
+     * re-synchronised with the wall clock every second.
+     *
+     * @return a calibrated epoch TimestampSource with default limits
+     */
+    static TimestampSource calibratedEpoch() {
+        return new CalibratedEpochClock(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Stamps epoch nanoseconds cached by a ticker thread every millisecond. Reading it costs
+     * one volatile load, at the price of millisecond resolution.
+     *
+     * @return a coarse epoch TimestampSource with default limits
+     */
+    static TimestampSource coarseEpoch() {
+        return new CoarseEpochClock(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,103 @@
+package quest.gekko.ringlogger.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.Deflater;
+
+/**
+ * Writes data in the block-compressed layout of {@link CompressedSegmentFormat}.
+ * <p>
+ * Reuses one {@link Deflater} and its output buffer for every block and file, so an instance
+ * must stay confined to one thread; call {@link #close()} to release the native deflater.
+ */
+public final class BlockCompressor implements AutoCloseable {
+    private static final int OUTPUT_CHUNK = 64 * 1024;
+
+    private final Deflater deflater;
+    private final int blockSize;
+    private final ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_CHUNK);
+
+    /**
+     * Creates a compressor.
+     *
+     * @param level deflate level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     * @param blockSize raw bytes per independently compressed block
+     */
+    public BlockCompressor(final int level, final int blockSize) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+        }
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+
+        this.deflater = new Deflater(level, true);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Compresses the remaining bytes of a buffer into a complete block-compressed file.
+     *
+     * @param source raw data, from its position to its limit; its position is not changed
+     * @param target channel receiving the compressed file
+     * @return number of bytes written to the target
+     * @throws IOException if the target cannot be written
+     */
+    public long compress(final ByteBuffer source, final WritableByteChannel target) throws IOException {
+        final long rawLength = source.remaining();
+        final int blockCount = (int) ((rawLength + blockSize - 1) / blockSize);
+        final ByteBuffer index = ByteBuffer.allocate(blockCount * CompressedSegmentFormat.INDEX_ENTRY_SIZE + CompressedSegmentFormat.TRAILER_SIZE);
+
+        long offset = writeFully(target, ByteBuffer.allocate(CompressedSegmentFormat.HEADER_SIZE)
+                .putInt(CompressedSegmentFormat.MAGIC)
+                .putShort(CompressedSegmentFormat.VERSION)
+                .putInt(blockSize)
+                .putLong(rawLength)
+                .flip());
+
+        for (int block = 0; block < blockCount; block++) {
+            final int start = source.position() + block * blockSize;
+            final int length = (int) Math.min(blockSize, rawLength - (long) block * blockSize);
+            final long compressed = compressBlock(source.slice(start, length), target);
+
+            index.putLong(offset).putInt((int) compressed);
+            offset += compressed;
+        }
+
+        index.putLong(offset).putInt(blockCount).putInt(CompressedSegmentFormat.MAGIC);
+        return offset + writeFully(target, index.flip());
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+
+    private long compressBlock(final ByteBuffer block, final WritableByteChannel target) throws IOException {
+        long written = 0;
+
+        deflater.reset();
+        deflater.setInput(block);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            output.clear();
+            deflater.deflate(output);
+            written += writeFully(target, output.flip());
+        }
+
+        return written;
+    }
+
+    private static int writeFully(final WritableByteChannel target, final ByteBuffer buffer) throws IOException {
+        final int length = buffer.remaining();
+
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,33 @@
+package quest.gekko.ringlogger.format;
+
+/**
+ * Layout of block-compressed segment files.
+ * <p>
+ * A closed segment is split into fixed-size blocks of raw bytes, each compressed as an
+ * independent raw deflate stream, so a reader can inflate any block without the ones before
+ * it. All values are big-endian:
+ * <pre>
+ * int    magic           0x524C5A31 ("RLZ1")
+ * short  version         {@link #VERSION}
+ * int    block size      raw bytes per block; only the last block may be shorter
+ * long   raw length      size of the original segment data
+ * ...    blocks          compressed bytes of every block, back to back
+ * ...    index           per block: long file offset, int compressed length
+ * long   index offset    file offset of the index
+ * int    block count
+ * int    magic           repeated, marking a complete file
+ * </pre>
+ * Readers start from the fixed-size trailer, load the index and seek straight to the block
+ * holding the raw offset they want.
+ */
+public final class CompressedSegmentFormat {
+    public static final int MAGIC = 0x524C5A31;
+    public static final short VERSION = 1;
+
+    public static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES + Long.BYTES;
+    public static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    public static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private CompressedSegmentFormat() {
+    }
+}
@@ -0,0 +1,172 @@
+package quest.gekko.ringlogger.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random-access reader of block-compressed segment files, see {@link CompressedSegmentFormat}.
+ */
+public final class CompressedSegmentReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final Inflater inflater = new Inflater(true);
+    private final int blockSize;
+    private final long rawLength;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+
+    /**
+     * Opens a compressed segment and loads its block index.
+     *
+     * @param file compressed segment file
+     * @throws IOException if the file cannot be read or is not a complete compressed segment
+     */
+    public CompressedSegmentReader(final Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            final ByteBuffer header = readAt(0, CompressedSegmentFormat.HEADER_SIZE);
+            final ByteBuffer trailer = readAt(channel.size() - CompressedSegmentFormat.TRAILER_SIZE, CompressedSegmentFormat.TRAILER_SIZE);
+
+            if (header.getInt() != CompressedSegmentFormat.MAGIC || trailer.getInt(Long.BYTES + Integer.BYTES) != CompressedSegmentFormat.MAGIC) {
+                throw new IOException("Not a complete compressed segment: " + file);
+            }
+
+            final short version = header.getShort();
+
+            if (version != CompressedSegmentFormat.VERSION) {
+                throw new IOException("Unsupported compressed segment version: " + version);
+            }
+
+            this.blockSize = header.getInt();
+            this.rawLength = header.getLong();
+
+            final long indexOffset = trailer.getLong();
+            final int blockCount = trailer.getInt();
+            final ByteBuffer index = readAt(indexOffset, blockCount * CompressedSegmentFormat.INDEX_ENTRY_SIZE);
+
+            this.blockOffsets = new long[blockCount];
+            this.blockLengths = new int[blockCount];
+
+            for (int block = 0; block < blockCount; block++) {
+                blockOffsets[block] = index.getLong();
+                blockLengths[block] = index.getInt();
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Tells whether a file starts like a compressed segment.
+     *
+     * @param firstInt first four bytes of the file, big-endian
+     * @return true if the file should be read with this class
+     */
+    public static boolean isCompressed(final int firstInt) {
+        return firstInt == CompressedSegmentFormat.MAGIC;
+    }
+
+    public long rawLength() {
+        return rawLength;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public int blockCount() {
+        return blockOffsets.length;
+    }
+
+    /**
+     * Inflates one block.
+     *
+     * @param block block number
+     * @return a heap buffer holding the block's raw bytes
+     * @throws IOException if the block cannot be read or is corrupt
+     */
+    public ByteBuffer readBlock(final int block) throws IOException {
+        final int length = (int) Math.min(blockSize, rawLength - (long) block * blockSize);
+        final ByteBuffer raw = ByteBuffer.allocate(length);
+        inflate(block, raw);
+        return raw.flip();
+    }
+
+    /**
+     * Inflates the block holding a raw offset, for readers seeking into the segment.
+     *
+     * @param rawOffset offset into the original segment data
+     * @return the raw bytes of the block, positioned at {@code rawOffset}
+     * @throws IOException if the block cannot be read or is corrupt
+     */
+    public ByteBuffer seek(final long rawOffset) throws IOException {
+        if (rawOffset < 0 || rawOffset >= rawLength) {
+            throw new IndexOutOfBoundsException("Offset " + rawOffset + " outside " + rawLength + " raw bytes");
+        }
+
+        final ByteBuffer block = readBlock((int) (rawOffset / blockSize));
+        return block.position((int) (rawOffset % blockSize));
+    }
+
+    /**
+     * Inflates the whole segment.
+     *
+     * @return a heap buffer holding the original segment data
+     * @throws IOException if a block cannot be read or is corrupt
+     */
+    public ByteBuffer readAll() throws IOException {
+        if (rawLength > Integer.MAX_VALUE) {
+            throw new IOException("Segment of " + rawLength + " bytes is too large to inflate at once");
+        }
+
+        final ByteBuffer raw = ByteBuffer.allocate((int) rawLength);
+
+        for (int block = 0; block < blockOffsets.length; block++) {
+            inflate(block, raw);
+        }
+
+        return raw.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private void inflate(final int block, final ByteBuffer target) throws IOException {
+        final int expected = (int) Math.min(blockSize, rawLength - (long) block * blockSize);
+        final int start = target.position();
+
+        inflater.reset();
+        inflater.setInput(readAt(blockOffsets[block], blockLengths[block]));
+
+        try {
+            while (!inflater.finished() && target.position() - start < expected) {
+                if (inflater.inflate(target) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated block " + block);
+                }
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Corrupt block " + block, e);
+        }
+    }
+
+    private ByteBuffer readAt(final long offset, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of compressed segment");
+            }
+        }
+
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,109 @@
+package quest.gekko.ringlogger.format;
+
+import quest.gekko.ringlogger.model.ComponentRegistry;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.TemplateRegistry;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps one segment file's dictionaries in step with the process registries.
+ * <p>
+ * Used by a sink on the logging thread: it encodes the header when a segment is opened
+ * and, before each batch, the definition entries for templates and component names
+ * registered since. Checking costs two volatile reads while nothing has changed. Thread
+ * names are only announced once per writer, so the tracker remembers every announcement
+ * the sink passes to {@link #observe(ByteBuffer)} and repeats them in each new header.
+ */
+public final class DefinitionTracker {
+    private final TemplateRegistry templateRegistry = TemplateRegistry.getInstance();
+    private final ComponentRegistry componentRegistry = ComponentRegistry.getInstance();
+
+    // Dictionary state already present in the current segment
+    private int writtenTemplates;
+    private String[] writtenComponents = new String[256];
+    private int componentVersion = -1;
+
+    // Thread names announced to the sink so far, by unsigned ordinal
+    private final Map<Integer, byte[]> threadNames = new TreeMap<>();
+
+    /**
+     * Encodes the header of a new segment, which then holds every current definition.
+     *
+     * @return a heap buffer holding the header
+     */
+    public ByteBuffer header() {
+        componentVersion = componentRegistry.version();
+        writtenComponents = componentRegistry.names();
+
+        final String[] templates = templateRegistry.templates();
+        writtenTemplates = templates.length;
+        return SegmentFormat.encodeHeader(writtenComponents, templates, threadNames);
+    }
+
+    /**
+     * Remembers the thread named by an entry the sink is about to write, if it is a thread
+     * name announcement. Costs one byte read for every other entry.
+     *
+     * @param logEntry entry spanning its position to its limit
+     */
+    public void observe(final ByteBuffer logEntry) {
+        final int base = logEntry.position();
+
+        if ((logEntry.get(base + LogEntry.FLAGS_OFFSET) & LogEntry.FLAG_THREAD_NAME) != 0) {
+            final byte[] name = new byte[logEntry.getInt(base + LogEntry.MESSAGE_LENGTH_OFFSET)];
+            logEntry.get(base + LogEntry.MESSAGE_OFFSET, name);
+            threadNames.put(Short.toUnsignedInt(logEntry.getShort(base + LogEntry.THREAD_ORDINAL_OFFSET)), name);
+        }
+    }
+
+    /**
+     * Tells whether definitions were registered since the segment last caught up.
+     *
+     * @return true if {@link #pending()} has entries to write
+     */
+    public boolean hasPending() {
+        return templateRegistry.size() != writtenTemplates || componentRegistry.version() != componentVersion;
+    }
+
+    /**
+     * Encodes the definitions registered since the segment last caught up and marks them written.
+     *
+     * @return synthetic definition entries, oldest first
+     */
+    public List<ByteBuffer> pending() {
+        final List<ByteBuffer> definitions = new ArrayList<>();
+        final String[] templates = templateRegistry.templates();
+
+        for (int id = writtenTemplates; id < templates.length; id++) {
+            definitions.add(LogEntry.encode(0, LogLevel.INFO, (byte) 0, LogEntry.FLAG_TEMPLATE_DEFINITION,
+                    ThreadDictionary.NO_THREAD, id, SegmentFormat.utf8(templates[id])));
+        }
+
+        writtenTemplates = templates.length;
+
+        final int version = componentRegistry.version();
+
+        if (version != componentVersion) {
+            final String[] names = componentRegistry.names();
+
+            for (int id = 0; id < names.length; id++) {
+                if (names[id] != null && !names[id].equals(writtenComponents[id])) {
+                    definitions.add(LogEntry.encode(0, LogLevel.INFO, (byte) id, LogEntry.FLAG_COMPONENT_NAME,
+                            ThreadDictionary.NO_THREAD, 0, SegmentFormat.utf8(names[id])));
+                }
+            }
+
+            writtenComponents = names;
+            componentVersion = version;
+        }
+
+        return definitions;
+    }
+}
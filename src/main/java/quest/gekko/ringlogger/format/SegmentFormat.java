@@ -0,0 +1,178 @@
+package quest.gekko.ringlogger.format;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of segment files written by the file sinks.
+ * <p>
+ * All values are big-endian. A segment starts with a file header:
+ * <pre>
+ * int    magic             0x524C4F47 ("RLOG")
+ * short  version           {@link #VERSION}
+ * int    header length     bytes from the start of the file to the first entry
+ * long   calibration epoch wall-clock epoch nanoseconds when the segment was opened
+ * long   calibration nano  System.nanoTime() at the same instant
+ * short  component count   followed by (byte id, string name) per named component
+ * int    template count    followed by one string per template, in id order
+ * int    thread count      followed by (short ordinal, string name) per named thread
+ * </pre>
+ * where a string is an unsigned short byte length followed by UTF-8 bytes. The header is
+ * followed by raw entries exactly as {@link quest.gekko.ringlogger.model.LogEntry} lays them
+ * out, each {@code HEADER_SIZE + message length} bytes long, until the end of the file or a
+ * zero level byte. Templates and component names registered after the header was written
+ * appear as synthetic entries flagged {@code FLAG_TEMPLATE_DEFINITION} or
+ * {@code FLAG_COMPONENT_NAME}, ahead of the first entry that needs them. Threads first seen
+ * after the header was written are announced by entries flagged {@code FLAG_THREAD_NAME}, and
+ * every name known when a segment is opened is in its header, so each segment decodes on its
+ * own. Monotonic timestamps are converted to wall-clock time with the calibration pair.
+ * <p>
+ * A file appended to by a later process continues with another header section, starting
+ * with the magic number where the next entry would start, whose calibration and
+ * dictionaries replace the previous ones for the entries that follow it. An entry's first
+ * four bytes are its timestamp's high word, which never equals the magic number before the
+ * year 2157.
+ */
+public final class SegmentFormat {
+    public static final int MAGIC = 0x524C4F47;
+    public static final short VERSION = 1;
+
+    private static final int MAX_STRING_LENGTH = 0xFFFF;
+
+    private SegmentFormat() {
+    }
+
+    /**
+     * Encodes a header holding the given dictionaries.
+     *
+     * @param componentNames component names indexed by unsigned id, null for unnamed ones
+     * @param templates templates indexed by id
+     * @param threadNames UTF-8 thread names by unsigned thread ordinal
+     * @return a heap buffer holding the header, positioned at its start
+     */
+    static ByteBuffer encodeHeader(final String[] componentNames, final String[] templates, final Map<Integer, byte[]> threadNames) {
+        final int templateCount = templates.length;
+        final List<byte[]> components = new ArrayList<>();
+        int length = Integer.BYTES + Short.BYTES + Integer.BYTES + 2 * Long.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES;
+
+        for (int id = 0; id < componentNames.length; id++) {
+            if (componentNames[id] != null) {
+                final byte[] name = utf8(componentNames[id]);
+                components.add(name);
+                length += Byte.BYTES + Short.BYTES + name.length;
+            }
+        }
+
+        final byte[][] encodedTemplates = new byte[templateCount][];
+
+        for (int id = 0; id < templateCount; id++) {
+            encodedTemplates[id] = utf8(templates[id]);
+            length += Short.BYTES + encodedTemplates[id].length;
+        }
+
+        for (final byte[] name : threadNames.values()) {
+            length += Short.BYTES + Short.BYTES + name.length;
+        }
+
+        final Instant wallClock = Instant.now();
+        final long nanoTime = System.nanoTime();
+        final ByteBuffer header = ByteBuffer.allocate(length)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putInt(length)
+                .putLong(wallClock.getEpochSecond() * 1_000_000_000L + wallClock.getNano())
+                .putLong(nanoTime)
+                .putShort((short) components.size());
+
+        int named = 0;
+
+        for (int id = 0; id < componentNames.length; id++) {
+            if (componentNames[id] != null) {
+                header.put((byte) id);
+                putString(header, components.get(named++));
+            }
+        }
+
+        header.putInt(templateCount);
+
+        for (final byte[] template : encodedTemplates) {
+            putString(header, template);
+        }
+
+        header.putInt(threadNames.size());
+
+        for (final Map.Entry<Integer, byte[]> thread : threadNames.entrySet()) {
+            header.putShort((short) (int) thread.getKey());
+            putString(header, thread.getValue());
+        }
+
+        return header.flip();
+    }
+
+    /**
+     * Decodes a segment header.
+     *
+     * @param buffer buffer positioned at the start of a segment; left positioned at the first entry
+     * @return the decoded header
+     */
+    public static SegmentHeader decodeHeader(final ByteBuffer buffer) {
+        final int start = buffer.position();
+
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a RingLogger segment");
+        }
+
+        final short version = buffer.getShort();
+
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported segment version: " + version);
+        }
+
+        final int headerLength = buffer.getInt();
+        final long calibrationEpochNanos = buffer.getLong();
+        final long calibrationNanoTime = buffer.getLong();
+        final String[] componentNames = new String[256];
+
+        for (int i = buffer.getShort() & 0xFFFF; i > 0; i--) {
+            final int id = buffer.get() & 0xFF;
+            componentNames[id] = getString(buffer);
+        }
+
+        final List<String> templates = new ArrayList<>();
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            templates.add(getString(buffer));
+        }
+
+        final Map<Integer, String> threadNames = new HashMap<>();
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            final int ordinal = Short.toUnsignedInt(buffer.getShort());
+            threadNames.put(ordinal, getString(buffer));
+        }
+
+        buffer.position(start + headerLength);
+        return new SegmentHeader(version, headerLength, calibrationEpochNanos, calibrationNanoTime, componentNames, templates, threadNames);
+    }
+
+    static byte[] utf8(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_STRING_LENGTH ? bytes : Arrays.copyOf(bytes, MAX_STRING_LENGTH);
+    }
+
+    private static void putString(final ByteBuffer buffer, final byte[] value) {
+        buffer.putShort((short) value.length).put(value);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
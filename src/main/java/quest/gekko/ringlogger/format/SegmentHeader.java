@@ -0,0 +1,82 @@
+package quest.gekko.ringlogger.format;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoded file header of a segment, see {@link SegmentFormat}.
+ */
+public final class SegmentHeader {
+    private final short version;
+    private final int headerLength;
+    private final long calibrationEpochNanos;
+    private final long calibrationNanoTime;
+    private final String[] componentNames;
+    private final List<String> templates;
+    private final Map<Integer, String> threadNames;
+
+    SegmentHeader(final short version, final int headerLength, final long calibrationEpochNanos, final long calibrationNanoTime,
+                  final String[] componentNames, final List<String> templates, final Map<Integer, String> threadNames) {
+        this.version = version;
+        this.headerLength = headerLength;
+        this.calibrationEpochNanos = calibrationEpochNanos;
+        this.calibrationNanoTime = calibrationNanoTime;
+        this.componentNames = componentNames;
+        this.templates = templates;
+        this.threadNames = threadNames;
+    }
+
+    /**
+     * Converts a monotonic {@link System#nanoTime()} timestamp written in this segment to
+     * wall-clock time.
+     *
+     * @param nanoTime monotonic timestamp
+     * @return nanoseconds since the Unix epoch
+     */
+    public long toEpochNanos(final long nanoTime) {
+        return calibrationEpochNanos + (nanoTime - calibrationNanoTime);
+    }
+
+    public short getVersion() {
+        return version;
+    }
+
+    public int getHeaderLength() {
+        return headerLength;
+    }
+
+    public long getCalibrationEpochNanos() {
+        return calibrationEpochNanos;
+    }
+
+    public long getCalibrationNanoTime() {
+        return calibrationNanoTime;
+    }
+
+    /**
+     * Returns the component names, indexed by unsigned component id.
+     *
+     * @return name table with null for unnamed components
+     */
+    public String[] getComponentNames() {
+        return componentNames;
+    }
+
+    /**
+     * Returns the templates, indexed by template id.
+     *
+     * @return template table
+     */
+    public List<String> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * Returns the names of the threads known when the segment was opened.
+     *
+     * @return thread names by unsigned thread ordinal
+     */
+    public Map<Integer, String> getThreadNames() {
+        return threadNames;
+    }
+}
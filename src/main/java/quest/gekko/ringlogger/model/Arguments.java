@@ -0,0 +1,172 @@
+package quest.gekko.ringlogger.model;
+
+import quest.gekko.ringlogger.util.Utf8;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+/**
+ * Binary layout of typed log arguments.
+ * <p>
+ * A typed message is a sequence of fields, each a one-byte tag followed by its value. The
+ * first field is the message pattern, either inline as a string or as the id of a template
+ * in the {@link TemplateRegistry}; every following field replaces the next {@code {}}
+ * placeholder when the entry is rendered. Arguments without a placeholder are appended,
+ * separated by spaces.
+ */
+public final class Arguments {
+    // Field tags
+    public static final byte TAG_LONG = 1;
+    public static final byte TAG_INT = 2;
+    public static final byte TAG_DOUBLE = 3;
+    public static final byte TAG_BOOLEAN = 4;
+    public static final byte TAG_CHAR = 5;
+    public static final byte TAG_STRING = 6; // Unsigned 16-bit length followed by UTF-8 bytes
+    public static final byte TAG_TEMPLATE = 7; // Registered template id
+
+    // Encoded field sizes, tag included
+    public static final int LONG_SIZE = 1 + Long.BYTES;
+    public static final int INT_SIZE = 1 + Integer.BYTES;
+    public static final int DOUBLE_SIZE = 1 + Double.BYTES;
+    public static final int BOOLEAN_SIZE = 1 + Byte.BYTES;
+    public static final int CHAR_SIZE = 1 + Character.BYTES;
+    public static final int STRING_HEADER_SIZE = 1 + Short.BYTES;
+    public static final int TEMPLATE_SIZE = 1 + Integer.BYTES;
+
+    // Longest string field; longer strings are truncated
+    public static final int MAX_STRING_LENGTH = 0xFFFF;
+
+    private static final String PLACEHOLDER = "{}";
+
+    private Arguments() {
+    }
+
+    /**
+     * Computes the encoded size of a string argument.
+     *
+     * @param value argument value
+     * @return size of the field in bytes, tag included
+     */
+    public static int sizeOf(final CharSequence value) {
+        return STRING_HEADER_SIZE + Math.min(Utf8.encodedLength(value), MAX_STRING_LENGTH);
+    }
+
+    /**
+     * Returns the pattern rendered in place of a template id nobody registered. It has no
+     * placeholders, so the entry's arguments follow it separated by spaces.
+     *
+     * @param templateId unknown template id
+     * @return placeholder pattern naming the id
+     */
+    public static String unknownTemplate(final int templateId) {
+        return "<unknown template " + templateId + ">";
+    }
+
+    /**
+     * Renders a typed message as text, resolving template ids through the process's
+     * {@link TemplateRegistry}.
+     *
+     * @param buffer buffer holding the message
+     * @param from absolute index of the first field
+     * @param to absolute index after the last field
+     * @param out destination for the rendered text
+     */
+    public static void render(final ByteBuffer buffer, final int from, final int to, final StringBuilder out) {
+        render(buffer, from, to, out, TemplateRegistry.getInstance()::find);
+    }
+
+    /**
+     * Renders a typed message as text.
+     *
+     * @param buffer buffer holding the message
+     * @param from absolute index of the first field
+     * @param to absolute index after the last field
+     * @param out destination for the rendered text
+     * @param templates resolves template ids, e.g. from the template table of a segment file;
+     *                  an id it returns null for is rendered as {@link #unknownTemplate(int)}
+     */
+    public static void render(final ByteBuffer buffer, final int from, final int to, final StringBuilder out,
+                              final IntFunction<String> templates) {
+        final String pattern;
+        int position;
+
+        switch (buffer.get(from)) {
+            case TAG_TEMPLATE -> {
+                final int templateId = buffer.getInt(from + 1);
+                final String template = templates.apply(templateId);
+                pattern = template != null ? template : unknownTemplate(templateId);
+                position = from + TEMPLATE_SIZE;
+            }
+            case TAG_STRING -> {
+                pattern = readString(buffer, from + 1);
+                position = from + STRING_HEADER_SIZE + Short.toUnsignedInt(buffer.getShort(from + 1));
+            }
+            default -> throw new IllegalArgumentException("Typed message must start with a pattern");
+        }
+
+        int cursor = 0;
+
+        while (position < to) {
+            final int placeholder = pattern.indexOf(PLACEHOLDER, cursor);
+
+            if (placeholder < 0) {
+                out.append(pattern, cursor, pattern.length()).append(' ');
+                cursor = pattern.length();
+            } else {
+                out.append(pattern, cursor, placeholder);
+                cursor = placeholder + PLACEHOLDER.length();
+            }
+
+            position = appendArgument(buffer, position, out);
+        }
+
+        out.append(pattern, cursor, pattern.length());
+    }
+
+    /**
+     * Appends one field as text.
+     *
+     * @param buffer buffer holding the field
+     * @param index absolute index of the field's tag
+     * @param out destination for the rendered value
+     * @return index of the next field
+     */
+    private static int appendArgument(final ByteBuffer buffer, final int index, final StringBuilder out) {
+        final int value = index + 1;
+
+        switch (buffer.get(index)) {
+            case TAG_LONG -> {
+                out.append(buffer.getLong(value));
+                return index + LONG_SIZE;
+            }
+            case TAG_INT -> {
+                out.append(buffer.getInt(value));
+                return index + INT_SIZE;
+            }
+            case TAG_DOUBLE -> {
+                out.append(buffer.getDouble(value));
+                return index + DOUBLE_SIZE;
+            }
+            case TAG_BOOLEAN -> {
+                out.append(buffer.get(value) != 0);
+                return index + BOOLEAN_SIZE;
+            }
+            case TAG_CHAR -> {
+                out.append(buffer.getChar(value));
+                return index + CHAR_SIZE;
+            }
+            case TAG_STRING -> {
+                out.append(readString(buffer, value));
+                return index + STRING_HEADER_SIZE + Short.toUnsignedInt(buffer.getShort(value));
+            }
+            default -> throw new IllegalArgumentException("Unknown argument tag: " + buffer.get(index));
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer, final int lengthIndex) {
+        final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(lengthIndex))];
+        buffer.get(lengthIndex + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package quest.gekko.ringlogger.model;
+
+/**
+ * Process-wide names of the component ids entries are logged under.
+ * <p>
+ * Names are optional and only used when entries are turned back into text, typically by
+ * the offline decoder reading the component table of a segment file.
+ */
+public final class ComponentRegistry {
+    private static final int COMPONENT_COUNT = 256;
+
+    private static final ComponentRegistry INSTANCE = new ComponentRegistry();
+
+    // Replaced on every registration so readers never need a lock
+    private volatile String[] names = new String[COMPONENT_COUNT];
+
+    // Bumped on every registration so writers can tell when to re-announce the table
+    private volatile int version;
+
+    private ComponentRegistry() {
+    }
+
+    public static ComponentRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Names a component id, replacing any previous name.
+     *
+     * @param componentId component identifier
+     * @param name component name
+     */
+    public synchronized void register(final byte componentId, final String name) {
+        final String[] updated = names.clone();
+        updated[componentId & 0xFF] = name;
+        names = updated;
+        version++;
+    }
+
+    /**
+     * Looks up the name of a component.
+     *
+     * @param componentId component identifier
+     * @return the registered name, or null if the component was never named
+     */
+    public String name(final byte componentId) {
+        return names[componentId & 0xFF];
+    }
+
+    /**
+     * Returns every component name, indexed by unsigned component id.
+     *
+     * @return snapshot of the name table, with null for unnamed components
+     */
+    public String[] names() {
+        return names.clone();
+    }
+
+    public int version() {
+        return version;
+    }
+}
@@ -2,42 +2,116 @@ package quest.gekko.ringlogger.model;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.IntFunction;
 
 public class LogEntry {
     // Log entry format constants
     private static final int TIMESTAMP_SIZE = Long.BYTES;
     private static final int LEVEL_SIZE = Byte.BYTES;
     private static final int COMPONENT_ID_SIZE = Byte.BYTES;
+    private static final int FLAGS_SIZE = Byte.BYTES;
+    private static final int THREAD_ORDINAL_SIZE = Short.BYTES;
+    private static final int SEQUENCE_SIZE = Integer.BYTES;
     private static final int MESSAGE_LENGTH_SIZE = Integer.BYTES;
 
     // Offsets for decoding log entries
-    private static final int TIMESTAMP_OFFSET = 0;
-    private static final int LEVEL_OFFSET = TIMESTAMP_OFFSET + TIMESTAMP_SIZE;
-    private static final int COMPONENT_ID_OFFSET = LEVEL_OFFSET + LEVEL_SIZE;
-    private static final int MESSAGE_LENGTH_OFFSET = COMPONENT_ID_OFFSET + COMPONENT_ID_SIZE;
-    private static final int MESSAGE_OFFSET = MESSAGE_LENGTH_OFFSET + MESSAGE_LENGTH_SIZE;
+    public static final int TIMESTAMP_OFFSET = 0;
+    public static final int LEVEL_OFFSET = TIMESTAMP_OFFSET + TIMESTAMP_SIZE;
+    public static final int COMPONENT_ID_OFFSET = LEVEL_OFFSET + LEVEL_SIZE;
+    public static final int FLAGS_OFFSET = COMPONENT_ID_OFFSET + COMPONENT_ID_SIZE;
+    public static final int THREAD_ORDINAL_OFFSET = FLAGS_OFFSET + FLAGS_SIZE;
+    public static final int SEQUENCE_OFFSET = THREAD_ORDINAL_OFFSET + THREAD_ORDINAL_SIZE;
+    public static final int MESSAGE_LENGTH_OFFSET = SEQUENCE_OFFSET + SEQUENCE_SIZE;
+    public static final int MESSAGE_OFFSET = MESSAGE_LENGTH_OFFSET + MESSAGE_LENGTH_SIZE;
+
+    // Size of the fixed header preceding the message bytes
+    public static final int HEADER_SIZE = MESSAGE_OFFSET;
+
+    // Header flag bits
+    public static final byte FLAG_TYPED = 0x01; // Message holds tagged arguments, see Arguments
+    public static final byte FLAG_EPOCH_TIMESTAMP = 0x02; // Timestamp is nanoseconds since the Unix epoch
+    public static final byte FLAG_THREAD_NAME = 0x04; // Synthetic entry naming the thread ordinal, see ThreadNameWriter
+    public static final byte FLAG_GAP = 0x08; // Synthetic entry reporting lost entries, see GapDetectingWriter
+    public static final byte FLAG_TRUNCATED = 0x10; // Message exceeded the logger's max entry size and was cut off
+    public static final byte FLAG_TEMPLATE_DEFINITION = 0x20; // Synthetic entry defining the template whose id is the sequence
+    public static final byte FLAG_COMPONENT_NAME = 0x40; // Synthetic entry naming the entry's component id
+    public static final byte FLAG_THREAD_START = (byte) 0x80; // First entry of a thread on its logger; the ordinal may be recycled
+
+    private static final String TRUNCATION_MARKER = " [truncated]";
 
     private final long timestamp;
     private final LogLevel level;
     private final byte componentId;
+    private final byte flags;
+    private final short threadOrdinal;
+    private final int sequence;
     private final String message;
 
     /**
      * Constructs a log entry from the given ByteBuffer.
      *
-     * @param buffer ByteBuffer containing log entry data
+     * @param buffer ByteBuffer containing log entry data, starting at its position
      */
     public LogEntry(final ByteBuffer buffer) {
-        this.timestamp = buffer.getLong(TIMESTAMP_OFFSET);
-        this.level = LogLevel.fromByte(buffer.get(LEVEL_OFFSET));
-        this.componentId = buffer.get(COMPONENT_ID_OFFSET);
+        this(buffer, TemplateRegistry.getInstance()::find);
+    }
+
+    /**
+     * Constructs a log entry from the given ByteBuffer, resolving template ids with the given
+     * table instead of the process's registry.
+     *
+     * @param buffer ByteBuffer containing log entry data, starting at its position
+     * @param templates resolves template ids of typed messages, returning null for unknown ones
+     */
+    public LogEntry(final ByteBuffer buffer, final IntFunction<String> templates) {
+        final int base = buffer.position();
+
+        this.timestamp = buffer.getLong(base + TIMESTAMP_OFFSET);
+        this.level = LogLevel.fromByte(buffer.get(base + LEVEL_OFFSET));
+        this.componentId = buffer.get(base + COMPONENT_ID_OFFSET);
+        this.flags = buffer.get(base + FLAGS_OFFSET);
+        this.threadOrdinal = buffer.getShort(base + THREAD_ORDINAL_OFFSET);
+        this.sequence = buffer.getInt(base + SEQUENCE_OFFSET);
 
-        final int messageLength = buffer.getInt(MESSAGE_LENGTH_OFFSET);
-        final byte[] messageBytes = new byte[messageLength];
-        buffer.position(MESSAGE_OFFSET);
-        buffer.get(messageBytes);
+        final int messageLength = buffer.getInt(base + MESSAGE_LENGTH_OFFSET);
 
-        this.message = new String(messageBytes, StandardCharsets.UTF_8);
+        if ((flags & FLAG_TYPED) != 0) {
+            // Arguments are rendered here, on the consuming thread, never by the producer
+            final StringBuilder rendered = new StringBuilder(messageLength * 2);
+            Arguments.render(buffer, base + MESSAGE_OFFSET, base + MESSAGE_OFFSET + messageLength, rendered, templates);
+            this.message = rendered.toString();
+        } else {
+            final byte[] messageBytes = new byte[messageLength];
+            buffer.get(base + MESSAGE_OFFSET, messageBytes);
+            this.message = new String(messageBytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Encodes a synthetic entry, such as a marker or definition written by a sink rather
+     * than logged by a producer.
+     *
+     * @param timestamp entry timestamp
+     * @param level log level
+     * @param componentId component identifier
+     * @param flags header flag bits
+     * @param threadOrdinal thread ordinal, or {@link ThreadDictionary#NO_THREAD}
+     * @param sequence sequence number
+     * @param message UTF-8 message bytes
+     * @return a heap buffer holding the entry, positioned at its start
+     */
+    public static ByteBuffer encode(final long timestamp, final LogLevel level, final byte componentId, final byte flags,
+                                    final short threadOrdinal, final int sequence, final byte[] message) {
+        return ByteBuffer.allocate(HEADER_SIZE + message.length)
+                .putLong(TIMESTAMP_OFFSET, timestamp)
+                .put(LEVEL_OFFSET, level.getValue())
+                .put(COMPONENT_ID_OFFSET, componentId)
+                .put(FLAGS_OFFSET, flags)
+                .putShort(THREAD_ORDINAL_OFFSET, threadOrdinal)
+                .putInt(SEQUENCE_OFFSET, sequence)
+                .putInt(MESSAGE_LENGTH_OFFSET, message.length)
+                .put(MESSAGE_OFFSET, message);
     }
 
     /**
@@ -46,8 +120,20 @@ public class LogEntry {
      * @return formatted log entry string
      */
     public String format() {
-        return String.format("[%d] [%s] [Component-%d] %s",
-                timestamp, level, componentId, message);
+        final Object time = isEpochTimestamp() ? Instant.ofEpochSecond(0, timestamp) : timestamp;
+        final String message = isTruncated() ? this.message + TRUNCATION_MARKER : this.message;
+
+        if ((flags & FLAG_THREAD_NAME) != 0) {
+            return String.format("[%s] [Thread-%d] is %s", time, Short.toUnsignedInt(threadOrdinal), message);
+        }
+
+        if (threadOrdinal != ThreadDictionary.NO_THREAD) {
+            return String.format("[%s] [%s] [Component-%d] [Thread-%d] %s",
+                    time, level, componentId, Short.toUnsignedInt(threadOrdinal), message);
+        }
+
+        return String.format("[%s] [%s] [Component-%d] %s",
+                time, level, componentId, message);
     }
 
 
@@ -63,6 +149,36 @@ public class LogEntry {
         return componentId;
     }
 
+    public byte getFlags() {
+        return flags;
+    }
+
+    /**
+     * Returns the ordinal of the thread that logged the entry.
+     *
+     * @return unsigned thread ordinal, or {@link ThreadDictionary#NO_THREAD} if not recorded
+     */
+    public short getThreadOrdinal() {
+        return threadOrdinal;
+    }
+
+    /**
+     * Returns the entry's position in the sequence of entries its thread logged.
+     *
+     * @return sequence number, wrapping after 2^32 entries
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    public boolean isEpochTimestamp() {
+        return (flags & FLAG_EPOCH_TIMESTAMP) != 0;
+    }
+
+    public boolean isTruncated() {
+        return (flags & FLAG_TRUNCATED) != 0;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -0,0 +1,100 @@
+package quest.gekko.ringlogger.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide table of message templates.
+ * <p>
+ * A template is registered once and logged by its numeric id afterwards, so entries only
+ * carry the id and their binary arguments. Ids are dense and never reused, which lets the
+ * logging thread or an offline decoder turn them back into text with a plain array lookup.
+ */
+public final class TemplateRegistry {
+    private static final TemplateRegistry INSTANCE = new TemplateRegistry();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // Replaced on every registration so readers never need a lock
+    private volatile String[] templates = new String[0];
+
+    private TemplateRegistry() {
+    }
+
+    public static TemplateRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a template, returning the existing id if it is already known.
+     *
+     * @param template message pattern with {@code {}} placeholders
+     * @return id of the template
+     */
+    public synchronized int register(final String template) {
+        final Integer existing = ids.get(template);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        final String[] current = templates;
+        final String[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = template;
+        ids.put(template, current.length);
+        templates = updated;
+        return current.length;
+    }
+
+    /**
+     * Looks up a registered template.
+     *
+     * @param templateId id returned by {@link #register(String)}
+     * @return the template
+     */
+    public String template(final int templateId) {
+        final String[] current = templates;
+
+        if (templateId < 0 || templateId >= current.length) {
+            throw new IllegalArgumentException("Unknown template id: " + templateId);
+        }
+
+        return current[templateId];
+    }
+
+    /**
+     * Looks up a template without failing on ids that were never registered, for readers
+     * that must not stop at a corrupt entry.
+     *
+     * @param templateId template id read from an entry
+     * @return the template, or null if the id is unknown
+     */
+    public String find(final int templateId) {
+        final String[] current = templates;
+        return templateId >= 0 && templateId < current.length ? current[templateId] : null;
+    }
+
+    /**
+     * Tells whether a template id was handed out by {@link #register(String)}.
+     *
+     * @param templateId template id to check
+     * @return true if the id is registered
+     */
+    public boolean isRegistered(final int templateId) {
+        return templateId >= 0 && templateId < templates.length;
+    }
+
+    /**
+     * Returns every registered template, indexed by id.
+     *
+     * @return snapshot of the template table
+     */
+    public String[] templates() {
+        return templates.clone();
+    }
+
+    public int size() {
+        return templates.length;
+    }
+}
@@ -0,0 +1,77 @@
+package quest.gekko.ringlogger.model;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide mapping of producer thread ordinals to thread names.
+ * <p>
+ * A thread registers its name once, the first time it logs; entries then carry only the
+ * ordinal, and the logging thread looks the name up the first time it sees each ordinal.
+ * Ordinals of threads that have ended are handed to new threads, so the 16-bit header field
+ * only runs out when more than 65535 producer threads are alive at once; the first entry of
+ * each thread is flagged {@link LogEntry#FLAG_THREAD_START} so readers notice the new owner.
+ */
+public final class ThreadDictionary {
+    // Header value of entries whose thread was not recorded
+    public static final short NO_THREAD = -1;
+
+    // Number of usable ordinals; the last 16-bit value is NO_THREAD
+    private static final int ORDINAL_COUNT = 0xFFFF;
+
+    private static final ThreadDictionary INSTANCE = new ThreadDictionary();
+
+    private final ConcurrentMap<Integer, String> names = new ConcurrentHashMap<>();
+
+    // Ordinals never handed out start at nextOrdinal; released ones wait in freeOrdinals
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Queue<Integer> freeOrdinals = new ConcurrentLinkedQueue<>();
+
+    private ThreadDictionary() {
+    }
+
+    public static ThreadDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Hands out an ordinal for a new producer thread and records its name. If every ordinal
+     * is taken, ordinals are shared round-robin rather than failing.
+     *
+     * @param name thread name
+     * @return ordinal to store in the thread's entry headers
+     */
+    public int acquire(final String name) {
+        Integer ordinal = freeOrdinals.poll();
+
+        if (ordinal == null) {
+            ordinal = nextOrdinal.getAndUpdate(next -> next == Integer.MAX_VALUE ? ORDINAL_COUNT : next + 1) % ORDINAL_COUNT;
+        }
+
+        names.put(ordinal, name);
+        return ordinal;
+    }
+
+    /**
+     * Returns the ordinal of a thread that has ended, so a later thread can take it over.
+     * The name stays registered until then, for entries of the thread still being written.
+     *
+     * @param ordinal ordinal returned by {@link #acquire(String)}
+     */
+    public void release(final int ordinal) {
+        freeOrdinals.add(ordinal);
+    }
+
+    /**
+     * Looks up the name of a producer thread.
+     *
+     * @param ordinal ordinal stored in an entry header
+     * @return the thread name, or a placeholder if the ordinal was never registered
+     */
+    public String name(final int ordinal) {
+        return names.getOrDefault(ordinal & 0xFFFF, "thread-" + (ordinal & 0xFFFF));
+    }
+}
@@ -0,0 +1,268 @@
+package quest.gekko.ringlogger.ring;
+
+import quest.gekko.ringlogger.util.PaddedAtomicLong;
+import quest.gekko.ringlogger.writer.LogWriter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Variable-length ring over one contiguous off-heap region.
+ * <p>
+ * Every entry is stored as a frame: a 4-byte length header followed by the entry bytes,
+ * padded so the next frame starts on an 8-byte boundary. A positive header is the length
+ * of a published frame, a negative header marks padding the consumer skips, and
+ * zero means the frame has not been published yet. Producers publish by release-storing
+ * the header; the consumer zeroes every frame it has read before releasing the space.
+ */
+abstract class AbstractByteRing implements LogRing, ProducerRing {
+    static final int FRAME_HEADER_SIZE = Integer.BYTES;
+    static final int FRAME_ALIGNMENT = Long.BYTES;
+
+    private static final VarHandle FRAME_HEADER =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    protected final ByteBuffer buffer;
+    protected final int capacity;
+    protected final int mask;
+    private final int maxEntrySize;
+    private final int maxFrameLength;
+
+    // Consumer-owned views handed to writers, so the shared buffer's position is never touched
+    private ByteBuffer[] entryViews = new ByteBuffer[0];
+
+    // Byte positions of the producer and consumer, increasing monotonically
+    protected final PaddedAtomicLong tailPosition = new PaddedAtomicLong(0);
+    protected final PaddedAtomicLong headPosition = new PaddedAtomicLong(0);
+
+    // Oldest-entry evictions requested by producers, settled by the consumer and actually performed
+    private final PaddedAtomicLong evictionRequests = new PaddedAtomicLong(0);
+    private long settledEvictions;
+    private final AtomicLong evictedEntries = new AtomicLong();
+
+    // Evictions settled up to the last released batch, which is when their space is free
+    private final AtomicLong releasedEvictions = new AtomicLong();
+
+    /**
+     * Allocates the off-heap region backing the ring.
+     *
+     * @param capacity size of the region in bytes, must be a power of two
+     * @param maxEntrySize largest entry the ring has to accept
+     */
+    protected AbstractByteRing(final int capacity, final int maxEntrySize) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+
+        if (frameLength(maxEntrySize) > capacity) {
+            throw new IllegalArgumentException("Entries of " + maxEntrySize + " bytes do not fit a ring of " + capacity);
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxEntrySize = maxEntrySize;
+        this.maxFrameLength = frameLength(maxEntrySize);
+    }
+
+    /**
+     * Reserves space for a frame of the given aligned length.
+     *
+     * @param frameLength aligned length of the frame, including its header
+     * @return index of the reserved frame in the buffer, or -1 if the ring is full
+     */
+    protected abstract int claimFrame(final int frameLength);
+
+    @Override
+    public ProducerRing forProducer(final int producerOrdinal) {
+        return this;
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public int claim(final int entryLength) {
+        if (entryLength > maxEntrySize) {
+            throw new IllegalArgumentException("Entry of " + entryLength + " bytes exceeds " + maxEntrySize);
+        }
+
+        if (entryLength < 0) {
+            throw new IllegalArgumentException("Entry length must not be negative: " + entryLength);
+        }
+
+        final int frameIndex = claimFrame(frameLength(entryLength));
+        return frameIndex < 0 ? -1 : frameIndex + FRAME_HEADER_SIZE;
+    }
+
+    /**
+     * Publishes the entry and turns any unused tail of the claimed frame into padding.
+     * The padding is published first so the consumer never stops at an empty header
+     * inside a frame that has already been committed.
+     */
+    @Override
+    public void commit(final int entryIndex, final int claimedLength, final int entryLength) {
+        final int frameIndex = entryIndex - FRAME_HEADER_SIZE;
+        final int claimedFrameLength = frameLength(claimedLength);
+        final int frameLength = frameLength(entryLength);
+
+        if (frameLength < claimedFrameLength) {
+            publishPadding(frameIndex + frameLength, claimedFrameLength - frameLength);
+        }
+
+        FRAME_HEADER.setRelease(buffer, frameIndex, FRAME_HEADER_SIZE + entryLength);
+    }
+
+    @Override
+    public void abort(final int entryIndex, final int claimedLength) {
+        publishPadding(entryIndex - FRAME_HEADER_SIZE, frameLength(claimedLength));
+    }
+
+    /**
+     * Collects every published frame up to {@code limit} entries, hands them to the writer
+     * as one batch and then releases all of their space with a single head update.
+     */
+    @Override
+    public int drain(final LogWriter writer, final int limit) {
+        final ByteBuffer[] views = entryViews(limit);
+        final long start = headPosition.getPlain();
+        final long evictionTarget = evictionRequests.get();
+        long head = start;
+        int drained = 0;
+        int batched = 0;
+
+        // Frames stay in place until the batch is released, so never walk past one full lap
+        while (drained < limit && head - start < capacity) {
+            final int index = (int) (head & mask);
+            final int header = (int) FRAME_HEADER.getAcquire(buffer, index);
+
+            // Only read frames whose producer has finished writing them
+            if (header == 0) {
+                break;
+            }
+
+            if (header > 0) {
+                if (settledEvictions < evictionTarget && evict(head)) {
+                    // Discard instead of writing; producers are waiting for the space
+                    evictedEntries.setRelease(evictedEntries.getPlain() + 1);
+                } else {
+                    views[batched++].limit(index + header).position(index + FRAME_HEADER_SIZE);
+                }
+
+                drained++;
+            }
+
+            head += header > 0 ? align(header) : -header;
+        }
+
+        if (head == start) {
+            return 0;
+        }
+
+        try {
+            if (batched > 0) {
+                writer.writeBatch(views, batched);
+            }
+        } finally {
+            // A failing writer loses this batch instead of wedging the logger thread
+            release(start, head);
+
+            if (settledEvictions != releasedEvictions.getPlain()) {
+                releasedEvictions.setRelease(settledEvictions);
+            }
+        }
+
+        return drained;
+    }
+
+    /**
+     * Settles one eviction request. Requests that arrive after the ring has already drained
+     * are settled without discarding anything.
+     *
+     * @param head position of the entry about to be consumed
+     * @return true if the entry should be discarded
+     */
+    private boolean evict(final long head) {
+        settledEvictions++;
+        return tailPosition.get() - head > capacity - maxFrameLength;
+    }
+
+    @Override
+    public long requestEviction() {
+        return evictionRequests.incrementAndGet();
+    }
+
+    @Override
+    public boolean isEvictionSettled(final long ticket) {
+        return releasedEvictions.getAcquire() >= ticket;
+    }
+
+    @Override
+    public long evictedCount() {
+        return evictedEntries.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return headPosition.get() >= tailPosition.get();
+    }
+
+    /**
+     * Publishes a padding frame that the consumer skips without reading.
+     *
+     * @param index start of the padding frame
+     * @param length aligned length of the padding
+     */
+    protected final void publishPadding(final int index, final int length) {
+        FRAME_HEADER.setRelease(buffer, index, -length);
+    }
+
+    private ByteBuffer[] entryViews(final int count) {
+        if (entryViews.length < count) {
+            final ByteBuffer[] views = new ByteBuffer[count];
+
+            for (int i = 0; i < count; i++) {
+                views[i] = i < entryViews.length ? entryViews[i] : buffer.duplicate();
+            }
+
+            entryViews = views;
+        }
+
+        return entryViews;
+    }
+
+    /**
+     * Zeroes the consumed frames between two positions and hands the space back to producers.
+     *
+     * @param start position of the first consumed frame
+     * @param end position after the last consumed frame
+     */
+    private void release(final long start, final long end) {
+        final int index = (int) (start & mask);
+        final int length = (int) (end - start);
+        final int firstPart = Math.min(length, capacity - index);
+
+        zero(index, firstPart);
+        zero(0, length - firstPart);
+        headPosition.setRelease(end);
+    }
+
+    private void zero(final int index, final int length) {
+        for (int i = index; i < index + length; i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+    }
+
+    static int frameLength(final int entryLength) {
+        return align(FRAME_HEADER_SIZE + entryLength);
+    }
+
+    private static int align(final int length) {
+        return (length + FRAME_ALIGNMENT - 1) & -FRAME_ALIGNMENT;
+    }
+}
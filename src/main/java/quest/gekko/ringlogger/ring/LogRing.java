@@ -0,0 +1,41 @@
+package quest.gekko.ringlogger.ring;
+
+import quest.gekko.ringlogger.writer.LogWriter;
+
+/**
+ * Consumer side of a ring, owned by the logger. Producers publish through the
+ * {@link ProducerRing} returned by {@link #forProducer(int)}.
+ */
+public interface LogRing {
+    /**
+     * Returns the ring a producer thread claims entries from. Rings that are not split
+     * return themselves.
+     *
+     * @param producerOrdinal stable identifier of the calling thread
+     * @return the ring to claim from
+     */
+    ProducerRing forProducer(final int producerOrdinal);
+
+    /**
+     * Hands published entries to the writer. Must only be called from the consumer thread.
+     *
+     * @param writer destination for drained entries
+     * @param limit maximum number of entries to drain in this call
+     * @return number of entries drained
+     */
+    int drain(final LogWriter writer, final int limit);
+
+    /**
+     * Returns how many entries the consumer has discarded on request.
+     *
+     * @return number of evicted entries
+     */
+    long evictedCount();
+
+    /**
+     * Checks whether every claimed entry has been consumed.
+     *
+     * @return true if the ring holds no pending entries
+     */
+    boolean isEmpty();
+}
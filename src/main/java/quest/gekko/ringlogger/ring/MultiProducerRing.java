@@ -0,0 +1,43 @@
+package quest.gekko.ringlogger.ring;
+
+/**
+ * Lock-free byte ring that any number of threads may publish into.
+ * <p>
+ * A frame is claimed with a single CAS on the tail position. A frame that would not fit
+ * before the end of the region claims the remainder as padding and starts again at zero.
+ */
+public final class MultiProducerRing extends AbstractByteRing {
+    /**
+     * Creates a ring and allocates its off-heap region.
+     *
+     * @param capacity size of the region in bytes, must be a power of two
+     * @param maxEntrySize largest entry the ring has to accept
+     */
+    public MultiProducerRing(final int capacity, final int maxEntrySize) {
+        super(capacity, maxEntrySize);
+    }
+
+    @Override
+    protected int claimFrame(final int frameLength) {
+        long tail;
+        int index;
+        int padding;
+
+        do {
+            tail = tailPosition.get();
+            index = (int) (tail & mask);
+            padding = frameLength > capacity - index ? capacity - index : 0;
+
+            if (tail + padding + frameLength - headPosition.get() > capacity) {
+                return -1;
+            }
+        } while (!tailPosition.compareAndSet(tail, tail + padding + frameLength));
+
+        if (padding == 0) {
+            return index;
+        }
+
+        publishPadding(index, padding);
+        return 0;
+    }
+}
@@ -0,0 +1,59 @@
+package quest.gekko.ringlogger.ring;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Producer side of a ring: the operations a logging thread uses to publish one entry.
+ * Obtained from {@link LogRing#forProducer(int)}.
+ */
+public interface ProducerRing {
+    /**
+     * Returns the memory that claimed entries are written into.
+     *
+     * @return the ring's backing buffer; its position and limit must not be changed
+     */
+    ByteBuffer buffer();
+
+    /**
+     * Reserves space for an entry that producers write in place.
+     *
+     * @param entryLength maximum number of bytes the entry will use
+     * @return index of the entry in {@link #buffer()}, or -1 if the ring is full
+     */
+    int claim(final int entryLength);
+
+    /**
+     * Publishes a claimed entry to the consumer.
+     *
+     * @param entryIndex index returned by {@link #claim(int)}
+     * @param claimedLength length passed to {@link #claim(int)}
+     * @param entryLength number of bytes actually written, at most {@code claimedLength}
+     */
+    void commit(final int entryIndex, final int claimedLength, final int entryLength);
+
+    /**
+     * Gives a claimed entry back without publishing it.
+     *
+     * @param entryIndex index returned by {@link #claim(int)}
+     * @param claimedLength length passed to {@link #claim(int)}
+     */
+    void abort(final int entryIndex, final int claimedLength);
+
+    /**
+     * Asks the consumer to discard the oldest pending entry instead of writing it.
+     * Safe to call from any producer thread.
+     *
+     * @return ticket to pass to {@link #isEvictionSettled(long)}
+     */
+    long requestEviction();
+
+    /**
+     * Tells whether the consumer has handled an eviction request and released the space of
+     * the entries it read along with it. A request made while the ring was nearly empty is
+     * settled without discarding anything.
+     *
+     * @param ticket value returned by {@link #requestEviction()}
+     * @return true once the request and every earlier one are settled
+     */
+    boolean isEvictionSettled(final long ticket);
+}
@@ -0,0 +1,18 @@
+package quest.gekko.ringlogger.ring;
+
+public enum ProducerType {
+    /**
+     * Exactly one thread logs; publishing uses only release/acquire ordering.
+     */
+    SINGLE,
+
+    /**
+     * Any number of threads log into one shared ring.
+     */
+    MULTI,
+
+    /**
+     * Any number of threads log; each thread is pinned to one of several independent rings.
+     */
+    STRIPED
+}
@@ -0,0 +1,48 @@
+package quest.gekko.ringlogger.ring;
+
+/**
+ * Byte ring for exactly one producer thread.
+ * <p>
+ * Frames are published with a release store of their header and the tail is advanced
+ * with a release store; neither side performs an atomic read-modify-write. Publishing
+ * from more than one thread corrupts the ring.
+ */
+public final class SingleProducerRing extends AbstractByteRing {
+    // Producer-local snapshot of the head position, refreshed only when the ring looks full
+    private long cachedHeadPosition;
+
+    /**
+     * Creates a ring and allocates its off-heap region.
+     *
+     * @param capacity size of the region in bytes, must be a power of two
+     * @param maxEntrySize largest entry the ring has to accept
+     */
+    public SingleProducerRing(final int capacity, final int maxEntrySize) {
+        super(capacity, maxEntrySize);
+    }
+
+    @Override
+    protected int claimFrame(final int frameLength) {
+        final long tail = tailPosition.getPlain();
+        final int index = (int) (tail & mask);
+        final int padding = frameLength > capacity - index ? capacity - index : 0;
+        final long required = tail + padding + frameLength - capacity;
+
+        if (required > cachedHeadPosition) {
+            cachedHeadPosition = headPosition.getAcquire();
+
+            if (required > cachedHeadPosition) {
+                return -1;
+            }
+        }
+
+        tailPosition.setRelease(tail + padding + frameLength);
+
+        if (padding == 0) {
+            return index;
+        }
+
+        publishPadding(index, padding);
+        return 0;
+    }
+}
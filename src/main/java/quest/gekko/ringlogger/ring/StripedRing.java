@@ -0,0 +1,90 @@
+package quest.gekko.ringlogger.ring;
+
+import quest.gekko.ringlogger.writer.LogWriter;
+
+/**
+ * Splits the ring into independent stripes so that producers on different cores
+ * stop contending on one pair of sequence counters.
+ * <p>
+ * Each producer thread is pinned to one stripe by its ordinal. While there are no more
+ * producing threads than stripes, every stripe has a single writer and its claim CAS
+ * never fails; beyond that, stripes are shared safely. The consumer drains the stripes
+ * round-robin, so ordering is preserved per thread but not across threads. Producers
+ * only ever see their stripe, through {@link #forProducer(int)}.
+ */
+public final class StripedRing implements LogRing {
+    private final MultiProducerRing[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a striped ring whose stripes together occupy {@code totalCapacity} bytes.
+     *
+     * @param stripeCount number of stripes, must be a power of two
+     * @param totalCapacity combined size of all stripes in bytes
+     * @param maxEntrySize largest entry each stripe has to accept
+     */
+    public StripedRing(final int stripeCount, final int totalCapacity, final int maxEntrySize) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripeCount);
+        }
+
+        this.stripes = new MultiProducerRing[stripeCount];
+        this.stripeMask = stripeCount - 1;
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new MultiProducerRing(totalCapacity / stripeCount, maxEntrySize);
+        }
+    }
+
+    /**
+     * Returns the most stripes a ring of the given size can be split into while every stripe
+     * still holds an entry of the maximum size.
+     *
+     * @param totalCapacity combined size of all stripes in bytes, a power of two
+     * @param maxEntrySize largest entry each stripe has to accept
+     * @return largest usable stripe count, a power of two; 1 if even a single ring is too small
+     */
+    public static int maxStripes(final int totalCapacity, final int maxEntrySize) {
+        // Stripes are a power of two in size, so the smallest one to hold a frame is the next one up
+        final int smallestStripe = Integer.highestOneBit(AbstractByteRing.frameLength(maxEntrySize) * 2 - 1);
+        return Math.max(1, totalCapacity / smallestStripe);
+    }
+
+    @Override
+    public ProducerRing forProducer(final int producerOrdinal) {
+        return stripes[producerOrdinal & stripeMask];
+    }
+
+    @Override
+    public int drain(final LogWriter writer, final int limit) {
+        int drained = 0;
+
+        for (final MultiProducerRing stripe : stripes) {
+            drained += stripe.drain(writer, limit);
+        }
+
+        return drained;
+    }
+
+    @Override
+    public long evictedCount() {
+        long evicted = 0;
+
+        for (final MultiProducerRing stripe : stripes) {
+            evicted += stripe.evictedCount();
+        }
+
+        return evicted;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (final MultiProducerRing stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
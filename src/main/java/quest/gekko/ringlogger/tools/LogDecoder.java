@@ -0,0 +1,234 @@
+package quest.gekko.ringlogger.tools;
+
+import quest.gekko.ringlogger.format.CompressedSegmentReader;
+import quest.gekko.ringlogger.format.SegmentFormat;
+import quest.gekko.ringlogger.format.SegmentHeader;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline decoder turning segment files back into text or JSON lines.
+ * <p>
+ * Usage: {@code ringlogger-decode [--json] <segment>...}. Segments are decoded in the order
+ * given, each with the dictionaries from its own header sections and definition entries, so
+ * files written or appended to by different processes can be decoded together. Compressed
+ * segments are recognised by their magic number and inflated before decoding.
+ */
+public final class LogDecoder {
+    private final boolean json;
+    private final PrintWriter out;
+
+    // Dictionaries of the segment being decoded
+    private final List<String> templates = new ArrayList<>();
+    private final String[] componentNames = new String[256];
+    private final Map<Integer, String> threadNames = new HashMap<>();
+    private SegmentHeader header;
+
+    public LogDecoder(final boolean json, final PrintWriter out) {
+        this.json = json;
+        this.out = out;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final boolean json = args.length > 0 && args[0].equals("--json");
+        final int first = json ? 1 : 0;
+
+        if (args.length == first) {
+            System.err.println("Usage: ringlogger-decode [--json] <segment>...");
+            System.exit(2);
+        }
+
+        final PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        final LogDecoder decoder = new LogDecoder(json, out);
+
+        for (int i = first; i < args.length; i++) {
+            decoder.decode(Path.of(args[i]));
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Decodes one segment file, writing one line per entry.
+     *
+     * @param segment path of the segment
+     * @throws IOException if the file cannot be read
+     */
+    public void decode(final Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() >= Integer.BYTES && CompressedSegmentReader.isCompressed(buffer.getInt(0))) {
+                try (CompressedSegmentReader reader = new CompressedSegmentReader(segment)) {
+                    buffer = reader.readAll();
+                }
+            }
+
+            // Segments pre-created by the mapped writer stay zero-filled until first used
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt(0) == 0) {
+                return;
+            }
+
+            readHeader(buffer);
+            int position = buffer.position();
+
+            // Entries run until the end of the file or the zeroed space of a pre-sized segment
+            while (buffer.limit() - position >= LogEntry.HEADER_SIZE) {
+                // A later process appended to the file: its header replaces the dictionaries
+                if (buffer.getInt(position) == SegmentFormat.MAGIC) {
+                    readHeader(buffer.position(position));
+                    position = buffer.position();
+                    continue;
+                }
+
+                if (buffer.get(position + LogEntry.LEVEL_OFFSET) == 0) {
+                    break;
+                }
+
+                final int length = LogEntry.HEADER_SIZE + buffer.getInt(position + LogEntry.MESSAGE_LENGTH_OFFSET);
+
+                if (length > buffer.limit() - position) {
+                    System.err.println(segment + ": truncated entry at offset " + position);
+                    break;
+                }
+
+                accept(new LogEntry(buffer.duplicate().position(position).limit(position + length), this::template));
+                position += length;
+            }
+        }
+    }
+
+    private void readHeader(final ByteBuffer buffer) {
+        header = SegmentFormat.decodeHeader(buffer);
+        templates.clear();
+        templates.addAll(header.getTemplates());
+        System.arraycopy(header.getComponentNames(), 0, componentNames, 0, componentNames.length);
+        threadNames.clear();
+        threadNames.putAll(header.getThreadNames());
+    }
+
+    private void accept(final LogEntry entry) {
+        final byte flags = entry.getFlags();
+
+        if ((flags & LogEntry.FLAG_TEMPLATE_DEFINITION) != 0) {
+            final int id = entry.getSequence();
+
+            while (templates.size() <= id) {
+                templates.add(null);
+            }
+
+            templates.set(id, entry.getMessage());
+        } else if ((flags & LogEntry.FLAG_COMPONENT_NAME) != 0) {
+            componentNames[entry.getComponentId() & 0xFF] = entry.getMessage();
+        } else if ((flags & LogEntry.FLAG_THREAD_NAME) != 0) {
+            threadNames.put(Short.toUnsignedInt(entry.getThreadOrdinal()), entry.getMessage());
+        } else if (json) {
+            writeJson(entry);
+        } else {
+            writeText(entry);
+        }
+    }
+
+    private void writeText(final LogEntry entry) {
+        final StringBuilder line = new StringBuilder(64 + entry.getMessage().length());
+        line.append('[').append(time(entry)).append("] [").append(entry.getLevel()).append("] [").append(component(entry)).append(']');
+
+        if (entry.getThreadOrdinal() != ThreadDictionary.NO_THREAD) {
+            line.append(" [").append(thread(entry)).append(']');
+        }
+
+        line.append(' ').append(entry.getMessage());
+
+        if (entry.isTruncated()) {
+            line.append(" [truncated]");
+        }
+
+        out.println(line);
+    }
+
+    private void writeJson(final LogEntry entry) {
+        final StringBuilder line = new StringBuilder(128 + entry.getMessage().length());
+        line.append("{\"timestamp\":\"").append(time(entry))
+                .append("\",\"level\":\"").append(entry.getLevel())
+                .append("\",\"component\":");
+        appendJsonString(line, component(entry));
+
+        if (entry.getThreadOrdinal() != ThreadDictionary.NO_THREAD) {
+            line.append(",\"thread\":");
+            appendJsonString(line, thread(entry));
+        }
+
+        line.append(",\"sequence\":").append(Integer.toUnsignedLong(entry.getSequence()));
+
+        if ((entry.getFlags() & LogEntry.FLAG_GAP) != 0) {
+            line.append(",\"gap\":true");
+        }
+
+        if (entry.isTruncated()) {
+            line.append(",\"truncated\":true");
+        }
+
+        line.append(",\"message\":");
+        appendJsonString(line, entry.getMessage());
+        out.println(line.append('}'));
+    }
+
+    private String template(final int id) {
+        return id >= 0 && id < templates.size() ? templates.get(id) : null;
+    }
+
+    private Instant time(final LogEntry entry) {
+        final long timestamp = entry.getTimestamp();
+        return Instant.ofEpochSecond(0, entry.isEpochTimestamp() ? timestamp : header.toEpochNanos(timestamp));
+    }
+
+    private String component(final LogEntry entry) {
+        final String name = componentNames[entry.getComponentId() & 0xFF];
+        return name != null ? name : "Component-" + entry.getComponentId();
+    }
+
+    private String thread(final LogEntry entry) {
+        final int ordinal = Short.toUnsignedInt(entry.getThreadOrdinal());
+        return threadNames.getOrDefault(ordinal, "Thread-" + ordinal);
+    }
+
+    private static void appendJsonString(final StringBuilder out, final String value) {
+        out.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+
+        out.append('"');
+    }
+}
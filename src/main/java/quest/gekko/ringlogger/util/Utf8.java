@@ -0,0 +1,196 @@
+package quest.gekko.ringlogger.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Garbage-free UTF-8 encoding of character sequences into off-heap memory.
+ * <p>
+ * Unpaired surrogates are encoded as {@code '?'}, matching {@link String#getBytes}.
+ * Truncation always happens on a code point boundary.
+ */
+public final class Utf8 {
+    private static final byte REPLACEMENT = (byte) '?';
+
+    private Utf8() {
+    }
+
+    /**
+     * Computes the exact number of bytes needed to encode a character sequence.
+     *
+     * @param value characters to measure
+     * @return encoded length in bytes
+     */
+    public static int encodedLength(final CharSequence value) {
+        final int length = value.length();
+        int bytes = length;
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x80) {
+                continue;
+            }
+
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // Two chars become four bytes
+                bytes += 2;
+                i++;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Encodes as much of a character sequence as fits into the given space.
+     *
+     * @param value characters to encode
+     * @param target buffer to write into; its position and limit are not changed
+     * @param index absolute index of the first byte to write
+     * @param maxBytes number of bytes available from {@code index}
+     * @return number of bytes written
+     */
+    public static int encode(final CharSequence value, final ByteBuffer target, final int index, final int maxBytes) {
+        final int length = value.length();
+        final int limit = index + maxBytes;
+        int position = index;
+        int i = 0;
+
+        // ASCII fast path: one byte per char until the first non-ASCII char
+        for (; i < length && position < limit; i++) {
+            final char c = value.charAt(i);
+
+            if (c >= 0x80) {
+                break;
+            }
+
+            target.put(position++, (byte) c);
+        }
+
+        for (; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x80) {
+                if (position >= limit) break;
+                target.put(position++, (byte) c);
+            } else if (c < 0x800) {
+                if (position + 2 > limit) break;
+                target.put(position++, (byte) (0xC0 | c >> 6));
+                target.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                if (position + 3 > limit) break;
+                target.put(position++, (byte) (0xE0 | c >> 12));
+                target.put(position++, (byte) (0x80 | c >> 6 & 0x3F));
+                target.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                if (position + 4 > limit) break;
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put(position++, (byte) (0xF0 | codePoint >> 18));
+                target.put(position++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                target.put(position++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                target.put(position++, (byte) (0x80 | codePoint & 0x3F));
+            } else {
+                if (position >= limit) break;
+                target.put(position++, REPLACEMENT);
+            }
+        }
+
+        return position - index;
+    }
+
+    /**
+     * Computes the exact number of bytes needed to encode a range of characters.
+     *
+     * @param value characters to measure
+     * @param offset index of the first character
+     * @param length number of characters
+     * @return encoded length in bytes
+     */
+    public static int encodedLength(final char[] value, final int offset, final int length) {
+        final int end = offset + length;
+        int bytes = length;
+
+        for (int i = offset; i < end; i++) {
+            final char c = value[i];
+
+            if (c < 0x80) {
+                continue;
+            }
+
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value[i + 1])) {
+                bytes += 2;
+                i++;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Encodes as much of a range of characters as fits into the given space.
+     *
+     * @param value characters to encode
+     * @param offset index of the first character
+     * @param length number of characters
+     * @param target buffer to write into; its position and limit are not changed
+     * @param index absolute index of the first byte to write
+     * @param maxBytes number of bytes available from {@code index}
+     * @return number of bytes written
+     */
+    public static int encode(final char[] value, final int offset, final int length,
+                             final ByteBuffer target, final int index, final int maxBytes) {
+        final int end = offset + length;
+        final int limit = index + maxBytes;
+        int position = index;
+        int i = offset;
+
+        // ASCII fast path: one byte per char until the first non-ASCII char
+        for (; i < end && position < limit; i++) {
+            final char c = value[i];
+
+            if (c >= 0x80) {
+                break;
+            }
+
+            target.put(position++, (byte) c);
+        }
+
+        for (; i < end; i++) {
+            final char c = value[i];
+
+            if (c < 0x80) {
+                if (position >= limit) break;
+                target.put(position++, (byte) c);
+            } else if (c < 0x800) {
+                if (position + 2 > limit) break;
+                target.put(position++, (byte) (0xC0 | c >> 6));
+                target.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                if (position + 3 > limit) break;
+                target.put(position++, (byte) (0xE0 | c >> 12));
+                target.put(position++, (byte) (0x80 | c >> 6 & 0x3F));
+                target.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value[i + 1])) {
+                if (position + 4 > limit) break;
+                final int codePoint = Character.toCodePoint(c, value[++i]);
+                target.put(position++, (byte) (0xF0 | codePoint >> 18));
+                target.put(position++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                target.put(position++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                target.put(position++, (byte) (0x80 | codePoint & 0x3F));
+            } else {
+                if (position >= limit) break;
+                target.put(position++, REPLACEMENT);
+            }
+        }
+
+        return position - index;
+    }
+}
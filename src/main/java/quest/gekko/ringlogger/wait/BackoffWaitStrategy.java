@@ -0,0 +1,61 @@
+package quest.gekko.ringlogger.wait;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for a while, then yields, then parks for exponentially increasing periods.
+ * Reacts within nanoseconds to short gaps while costing almost no CPU when idle.
+ */
+public final class BackoffWaitStrategy implements WaitStrategy {
+    private static final long MIN_PARK_NANOS = 1_000;
+
+    private final int spinTries;
+    private final int yieldTries;
+    private final long maxParkNanos;
+
+    // Most doublings of the shortest park that stay within maxParkNanos
+    private final int maxDoublings;
+
+    /**
+     * Creates a progressive back-off strategy.
+     *
+     * @param spinTries idle passes spent spinning
+     * @param yieldTries idle passes spent yielding after spinning
+     * @param maxParkNanos upper bound for a single park
+     */
+    public BackoffWaitStrategy(final int spinTries, final int yieldTries, final long maxParkNanos) {
+        if (spinTries < 0 || yieldTries < 0 || maxParkNanos < MIN_PARK_NANOS) {
+            throw new IllegalArgumentException("Invalid back-off limits");
+        }
+
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.maxParkNanos = maxParkNanos;
+        this.maxDoublings = 63 - Long.numberOfLeadingZeros(maxParkNanos / MIN_PARK_NANOS);
+    }
+
+    @Override
+    public void idle(final int idleCount, final BooleanSupplier hasWork) {
+        if (idleCount <= spinTries) {
+            Thread.onSpinWait();
+        } else if (idleCount <= spinTries + yieldTries) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(parkNanos(idleCount));
+        }
+    }
+
+    /**
+     * Computes how long an idle pass past the spinning and yielding phases parks.
+     *
+     * @param idleCount number of consecutive idle passes
+     * @return park time, doubling from the shortest park up to {@code maxParkNanos}
+     */
+    long parkNanos(final int idleCount) {
+        final int parks = idleCount - spinTries - yieldTries - 1;
+
+        // Stop doubling at the cap; shifting further would overflow to zero or below
+        return parks > maxDoublings ? maxParkNanos : Math.min(MIN_PARK_NANOS << parks, maxParkNanos);
+    }
+}
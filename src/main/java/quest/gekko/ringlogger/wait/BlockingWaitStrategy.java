@@ -0,0 +1,68 @@
+package quest.gekko.ringlogger.wait;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Puts the logger thread to sleep while the ring is empty and lets producers wake it.
+ * <p>
+ * Producers only pay for a fence and a volatile read while the logger thread is awake; the
+ * first producer to see it asleep claims the wake-up with a CAS and unparks it. The logger
+ * thread announces itself as the sleeper and then checks for work once more, each side
+ * with a full fence between its write and its read, so a publish racing with it falling
+ * asleep is either seen by that check or sees the sleeper and wakes it.
+ */
+public final class BlockingWaitStrategy implements WaitStrategy {
+    private static final VarHandle SLEEPER;
+
+    static {
+        try {
+            SLEEPER = MethodHandles.lookup().findVarHandle(BlockingWaitStrategy.class, "sleeper", Thread.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long maxParkNanos;
+
+    // Logger thread while it is parked, null while it is awake
+    private volatile Thread sleeper;
+
+    /**
+     * Creates a blocking strategy.
+     *
+     * @param maxParkNanos longest time the logger thread sleeps without a signal
+     */
+    public BlockingWaitStrategy(final long maxParkNanos) {
+        if (maxParkNanos <= 0) {
+            throw new IllegalArgumentException("Max park time must be positive: " + maxParkNanos);
+        }
+
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public void idle(final int idleCount, final BooleanSupplier hasWork) {
+        sleeper = Thread.currentThread();
+        VarHandle.fullFence();
+
+        if (!hasWork.getAsBoolean()) {
+            LockSupport.parkNanos(this, maxParkNanos);
+        }
+
+        sleeper = null;
+    }
+
+    @Override
+    public void signal() {
+        // Order the producer's publish before its read of the sleeper
+        VarHandle.fullFence();
+        final Thread thread = sleeper;
+
+        if (thread != null && SLEEPER.compareAndSet(this, thread, null)) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
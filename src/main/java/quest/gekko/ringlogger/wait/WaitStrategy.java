@@ -0,0 +1,72 @@
+package quest.gekko.ringlogger.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides what the logger thread does when a drain pass finds nothing to write.
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+    /**
+     * Called by the logger thread after a drain pass that wrote no entries.
+     *
+     * @param idleCount number of consecutive idle passes, starting at 1
+     * @param hasWork tells whether producers have published since; strategies that sleep
+     *                until {@link #signal()} re-check it after announcing they are asleep
+     */
+    void idle(final int idleCount, final BooleanSupplier hasWork);
+
+    /**
+     * Called by a producer after it published an entry. Only strategies that put the
+     * logger thread to sleep need to act on it.
+     */
+    default void signal() {
+    }
+
+    /**
+     * Keeps the logger thread spinning on its core for the lowest possible latency.
+     *
+     * @return a WaitStrategy that never gives up the CPU
+     */
+    static WaitStrategy busySpin() {
+        return (idleCount, hasWork) -> Thread.onSpinWait();
+    }
+
+    /**
+     * Yields the logger thread's time slice on every idle pass.
+     *
+     * @return a WaitStrategy that yields while idle
+     */
+    static WaitStrategy yielding() {
+        return (idleCount, hasWork) -> Thread.yield();
+    }
+
+    /**
+     * Parks the logger thread for the shortest time the OS allows.
+     *
+     * @return a WaitStrategy that parks on every idle pass
+     */
+    static WaitStrategy parking() {
+        return (idleCount, hasWork) -> LockSupport.parkNanos(1);
+    }
+
+    /**
+     * Spins, then yields, then parks for exponentially longer periods up to one millisecond.
+     *
+     * @return a progressive back-off WaitStrategy with default limits
+     */
+    static WaitStrategy backoff() {
+        return new BackoffWaitStrategy(100, 10, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Sleeps until a producer publishes, waking at least every ten milliseconds.
+     *
+     * @return a blocking WaitStrategy with default limits
+     */
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+}
@@ -0,0 +1,632 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.model.Arguments;
+import quest.gekko.ringlogger.model.ComponentRegistry;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.TemplateRegistry;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+import quest.gekko.ringlogger.util.Utf8;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Renders entries as text lines straight from their bytes and writes them to stdout, or to
+ * stderr from {@link LogLevel#ERROR} up.
+ * <p>
+ * Lines are assembled in one reusable buffer and written once per batch through a channel on
+ * the standard {@link FileDescriptor}, bypassing {@link System#out} and its lock. Level names
+ * and component prefixes are encoded once, templates on first use, and typed arguments are
+ * rendered in place, so nothing is allocated per entry; only {@code double} arguments that
+ * need more than 15 significant digits, or lie far outside the plain notation range, fall
+ * back to {@link Double#toString(double)}. Lines going to the other stream flush the buffer
+ * first, keeping the interleaving of stdout and stderr in logging order. An entry that cannot
+ * be rendered is reported and skipped without disturbing the lines around it.
+ */
+public final class ConsoleWriter implements LogWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] TRUNCATION_MARKER = ascii(" [truncated]");
+    private static final byte[] THREAD_PREFIX = ascii("[Thread-");
+    private static final byte[] THREAD_NAME_INFIX = ascii("] is ");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] LONG_MIN_VALUE = ascii(Long.toString(Long.MIN_VALUE));
+    private static final byte[] POSITIVE_ZERO = ascii("0.0");
+    private static final byte[] NEGATIVE_ZERO = ascii("-0.0");
+    private static final byte[] NAN = ascii("NaN");
+    private static final byte[] POSITIVE_INFINITY = ascii("Infinity");
+    private static final byte[] NEGATIVE_INFINITY = ascii("-Infinity");
+
+    // Powers of ten that are exact as doubles, and as longs
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    // Most significant digits of a double rendered in place; below 2^53, so exact as a double
+    private static final int MAX_PLACE_DIGITS = 15;
+
+    static {
+        double doublePower = 1;
+        long longPower = 1;
+
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++, doublePower *= 10) {
+            DOUBLE_POWERS_OF_TEN[i] = doublePower;
+        }
+
+        for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++, longPower *= 10) {
+            LONG_POWERS_OF_TEN[i] = longPower;
+        }
+    }
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final WritableByteChannel out;
+    private final WritableByteChannel err;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    // Channel the buffered lines belong to
+    private WritableByteChannel current;
+
+    // "[LEVEL] " by level value
+    private final byte[][] levelPrefixes = new byte[256][];
+
+    // "[name] " by component id, rebuilt when the component registry changes
+    private final byte[][] componentPrefixes = new byte[256][];
+    private int componentVersion = -1;
+
+    // UTF-8 templates by id, encoded on first use; registered templates never change
+    private ByteBuffer[] templates = new ByteBuffer[0];
+
+    // "yyyy-mm-ddT" of the day last rendered
+    private final byte[] datePrefix = new byte[11];
+    private long datePrefixDay = Long.MIN_VALUE;
+
+    private final char[] singleChar = new char[1];
+
+    // Buffer position where the line being rendered starts, or -1 once part of it was flushed
+    private int lineStart;
+
+    /**
+     * Creates a writer on the process's standard output and error descriptors.
+     */
+    public ConsoleWriter() {
+        // The streams are deliberately never closed, which would close the descriptors
+        this(new FileOutputStream(FileDescriptor.out).getChannel(), new FileOutputStream(FileDescriptor.err).getChannel());
+    }
+
+    /**
+     * Creates a writer on the given channels.
+     *
+     * @param out channel receiving lines below {@link LogLevel#ERROR}
+     * @param err channel receiving {@link LogLevel#ERROR} lines
+     */
+    public ConsoleWriter(final WritableByteChannel out, final WritableByteChannel err) {
+        this.out = out;
+        this.err = err;
+        this.current = out;
+
+        for (final LogLevel level : LogLevel.values()) {
+            levelPrefixes[level.getValue() & 0xFF] = ascii("[" + level + "] ");
+        }
+    }
+
+    @Override
+    public void write(final ByteBuffer logEntry) {
+        renderLine(logEntry);
+        flush();
+    }
+
+    @Override
+    public void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        for (int i = 0; i < count; i++) {
+            renderLine(logEntries[i]);
+        }
+
+        flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Renders one entry, dropping its partial line if it turns out to be malformed so the
+     * rest of the batch is still written.
+     */
+    private void renderLine(final ByteBuffer entry) {
+        final byte level = entry.get(entry.position() + LogEntry.LEVEL_OFFSET);
+        select(level >= LogLevel.ERROR.getValue() ? err : out);
+        lineStart = buffer.position();
+
+        try {
+            render(entry);
+        } catch (final RuntimeException e) {
+            if (lineStart >= 0) {
+                buffer.position(lineStart);
+            } else {
+                // The start of the line was already written; end it so the next one stands alone
+                put((byte) '\n');
+            }
+
+            System.err.println("Logging failure: " + e.getMessage());
+        }
+    }
+
+    private void render(final ByteBuffer entry) {
+        final int base = entry.position();
+        final byte level = entry.get(base + LogEntry.LEVEL_OFFSET);
+        final byte flags = entry.get(base + LogEntry.FLAGS_OFFSET);
+        final short threadOrdinal = entry.getShort(base + LogEntry.THREAD_ORDINAL_OFFSET);
+        final int messageOffset = base + LogEntry.MESSAGE_OFFSET;
+        final int messageEnd = messageOffset + entry.getInt(base + LogEntry.MESSAGE_LENGTH_OFFSET);
+
+        put((byte) '[');
+        putTimestamp(entry.getLong(base + LogEntry.TIMESTAMP_OFFSET), (flags & LogEntry.FLAG_EPOCH_TIMESTAMP) != 0);
+        put((byte) ']');
+        put((byte) ' ');
+
+        if ((flags & LogEntry.FLAG_THREAD_NAME) != 0) {
+            put(THREAD_PREFIX);
+            putLong(Short.toUnsignedInt(threadOrdinal));
+            put(THREAD_NAME_INFIX);
+        } else {
+            put(levelPrefix(level));
+            put(componentPrefix(entry.get(base + LogEntry.COMPONENT_ID_OFFSET)));
+
+            if (threadOrdinal != ThreadDictionary.NO_THREAD) {
+                put(THREAD_PREFIX);
+                putLong(Short.toUnsignedInt(threadOrdinal));
+                put((byte) ']');
+                put((byte) ' ');
+            }
+        }
+
+        if ((flags & LogEntry.FLAG_TYPED) != 0) {
+            putTyped(entry, messageOffset, messageEnd);
+        } else {
+            put(entry, messageOffset, messageEnd - messageOffset);
+        }
+
+        if ((flags & LogEntry.FLAG_TRUNCATED) != 0) {
+            put(TRUNCATION_MARKER);
+        }
+
+        put((byte) '\n');
+    }
+
+    /**
+     * Renders a typed message the way {@link Arguments#render} does, but into bytes.
+     */
+    private void putTyped(final ByteBuffer entry, final int from, final int to) {
+        final ByteBuffer pattern;
+        int patternIndex;
+        final int patternEnd;
+        int position;
+
+        switch (entry.get(from)) {
+            case Arguments.TAG_TEMPLATE -> {
+                pattern = template(entry.getInt(from + 1));
+                patternIndex = 0;
+                patternEnd = pattern.limit();
+                position = from + Arguments.TEMPLATE_SIZE;
+            }
+            case Arguments.TAG_STRING -> {
+                pattern = entry;
+                patternIndex = from + Arguments.STRING_HEADER_SIZE;
+                patternEnd = patternIndex + Short.toUnsignedInt(entry.getShort(from + 1));
+                position = patternEnd;
+            }
+            default -> throw new IllegalArgumentException("Typed message must start with a pattern");
+        }
+
+        while (position < to) {
+            final int placeholder = indexOfPlaceholder(pattern, patternIndex, patternEnd);
+
+            if (placeholder < 0) {
+                put(pattern, patternIndex, patternEnd - patternIndex);
+                put((byte) ' ');
+                patternIndex = patternEnd;
+            } else {
+                put(pattern, patternIndex, placeholder - patternIndex);
+                patternIndex = placeholder + 2;
+            }
+
+            position = putArgument(entry, position);
+        }
+
+        put(pattern, patternIndex, patternEnd - patternIndex);
+    }
+
+    private int putArgument(final ByteBuffer entry, final int index) {
+        final int value = index + 1;
+
+        switch (entry.get(index)) {
+            case Arguments.TAG_LONG -> {
+                putLong(entry.getLong(value));
+                return index + Arguments.LONG_SIZE;
+            }
+            case Arguments.TAG_INT -> {
+                putLong(entry.getInt(value));
+                return index + Arguments.INT_SIZE;
+            }
+            case Arguments.TAG_DOUBLE -> {
+                putDouble(entry.getDouble(value));
+                return index + Arguments.DOUBLE_SIZE;
+            }
+            case Arguments.TAG_BOOLEAN -> {
+                put(entry.get(value) != 0 ? TRUE : FALSE);
+                return index + Arguments.BOOLEAN_SIZE;
+            }
+            case Arguments.TAG_CHAR -> {
+                singleChar[0] = entry.getChar(value);
+                ensure(3);
+                buffer.position(buffer.position() + Utf8.encode(singleChar, 0, 1, buffer, buffer.position(), 3));
+                return index + Arguments.CHAR_SIZE;
+            }
+            case Arguments.TAG_STRING -> {
+                final int length = Short.toUnsignedInt(entry.getShort(value));
+                put(entry, value + Short.BYTES, length);
+                return index + Arguments.STRING_HEADER_SIZE + length;
+            }
+            default -> throw new IllegalArgumentException("Unknown argument tag: " + entry.get(index));
+        }
+    }
+
+    private static int indexOfPlaceholder(final ByteBuffer pattern, final int from, final int to) {
+        for (int i = from; i < to - 1; i++) {
+            if (pattern.get(i) == '{' && pattern.get(i + 1) == '}') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Writes an epoch timestamp as an ISO-8601 instant with nanosecond precision, or a
+     * monotonic one as a plain number.
+     */
+    private void putTimestamp(final long timestamp, final boolean epoch) {
+        if (!epoch) {
+            putLong(timestamp);
+            return;
+        }
+
+        final long seconds = Math.floorDiv(timestamp, NANOS_PER_SECOND);
+        final int nanos = (int) Math.floorMod(timestamp, NANOS_PER_SECOND);
+        final long day = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+
+        if (day != datePrefixDay) {
+            encodeDate(day);
+        }
+
+        ensure(datePrefix.length + 19);
+        buffer.put(datePrefix);
+        putDigits(secondOfDay / 3600, 2);
+        buffer.put((byte) ':');
+        putDigits(secondOfDay / 60 % 60, 2);
+        buffer.put((byte) ':');
+        putDigits(secondOfDay % 60, 2);
+        buffer.put((byte) '.');
+        putDigits(nanos, 9);
+        buffer.put((byte) 'Z');
+    }
+
+    /**
+     * Encodes the "yyyy-mm-ddT" prefix of an epoch day, using the civil calendar algorithm
+     * of {@link java.time.LocalDate#ofEpochDay} without the allocation.
+     */
+    private void encodeDate(final long epochDay) {
+        long zeroDay = epochDay + 719_528 - 60;
+        long adjust = 0;
+
+        if (zeroDay < 0) {
+            final long adjustCycles = (zeroDay + 1) / 146_097 - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * 146_097;
+        }
+
+        long yearEstimate = (400 * zeroDay + 591) / 146_097;
+        long dayOfYear = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+
+        if (dayOfYear < 0) {
+            yearEstimate--;
+            dayOfYear = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+        }
+
+        final int marchDayOfYear = (int) dayOfYear;
+        final int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+        final int month = (marchMonth + 2) % 12 + 1;
+        final int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+        final long year = yearEstimate + adjust + marchMonth / 10;
+
+        // Years outside 0000-9999 are clamped rather than widening the prefix
+        final int clampedYear = (int) Math.max(0, Math.min(9999, year));
+        writeDigits(datePrefix, 0, clampedYear, 4);
+        datePrefix[4] = '-';
+        writeDigits(datePrefix, 5, month, 2);
+        datePrefix[7] = '-';
+        writeDigits(datePrefix, 8, day, 2);
+        datePrefix[10] = 'T';
+        datePrefixDay = epochDay;
+    }
+
+    private byte[] levelPrefix(final byte level) {
+        final byte[] prefix = levelPrefixes[level & 0xFF];
+
+        if (prefix == null) {
+            throw new IllegalArgumentException("Unknown log level: " + level);
+        }
+
+        return prefix;
+    }
+
+    private byte[] componentPrefix(final byte componentId) {
+        final ComponentRegistry registry = ComponentRegistry.getInstance();
+        final int version = registry.version();
+
+        if (version != componentVersion) {
+            // Registration happens at startup, so this runs a handful of times per process
+            final String[] names = registry.names();
+
+            for (int id = 0; id < names.length; id++) {
+                final String name = names[id] != null ? names[id] : "Component-" + (byte) id;
+                componentPrefixes[id] = ("[" + name + "] ").getBytes(StandardCharsets.UTF_8);
+            }
+
+            componentVersion = version;
+        }
+
+        return componentPrefixes[componentId & 0xFF];
+    }
+
+    private ByteBuffer template(final int templateId) {
+        if (templateId >= 0 && templateId < templates.length && templates[templateId] != null) {
+            return templates[templateId];
+        }
+
+        // Validate before growing the cache, so a corrupt id cannot size it
+        final String template = TemplateRegistry.getInstance().find(templateId);
+
+        if (template == null) {
+            return ByteBuffer.wrap(Arguments.unknownTemplate(templateId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (templateId >= templates.length) {
+            templates = Arrays.copyOf(templates, Math.max(templateId + 1, templates.length * 2));
+        }
+
+        final ByteBuffer encoded = ByteBuffer.wrap(template.getBytes(StandardCharsets.UTF_8));
+        templates[templateId] = encoded;
+        return encoded;
+    }
+
+    private void putLong(final long value) {
+        if (value == Long.MIN_VALUE) {
+            put(LONG_MIN_VALUE);
+            return;
+        }
+
+        long magnitude = Math.abs(value);
+        int digits = 1;
+
+        for (long bound = 10; digits < 19 && magnitude >= bound; bound *= 10) {
+            digits++;
+        }
+
+        ensure(digits + 1);
+
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+
+        final int end = buffer.position() + digits;
+
+        for (int i = end - 1; i >= end - digits; i--) {
+            buffer.put(i, (byte) ('0' + magnitude % 10));
+            magnitude /= 10;
+        }
+
+        buffer.position(end);
+    }
+
+    /**
+     * Writes a double the way {@link Double#toString(double)} does, without allocating: the
+     * shortest digits of at least two that read back as the same value, checked exactly with
+     * one correctly rounded multiplication or division by a power of ten.
+     */
+    private void putDouble(final double value) {
+        if (value == 0) {
+            put(Double.doubleToRawLongBits(value) == 0 ? POSITIVE_ZERO : NEGATIVE_ZERO);
+            return;
+        }
+
+        if (!Double.isFinite(value)) {
+            put(Double.isNaN(value) ? NAN : value > 0 ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+            return;
+        }
+
+        final double magnitude = Math.abs(value);
+        final int exponent = (int) Math.floor(Math.log10(magnitude));
+
+        for (int precision = 2; precision <= MAX_PLACE_DIGITS; precision++) {
+            // Digits after the decimal point; negative for trailing zeros before it
+            final int scale = precision - 1 - exponent;
+
+            if (Math.abs(scale) >= DOUBLE_POWERS_OF_TEN.length) {
+                break;
+            }
+
+            final long digits;
+            final boolean exact;
+
+            if (scale >= 0) {
+                digits = Math.round(magnitude * DOUBLE_POWERS_OF_TEN[scale]);
+                exact = digits / DOUBLE_POWERS_OF_TEN[scale] == magnitude;
+            } else {
+                digits = Math.round(magnitude / DOUBLE_POWERS_OF_TEN[-scale]);
+                exact = digits * DOUBLE_POWERS_OF_TEN[-scale] == magnitude;
+            }
+
+            if (exact) {
+                putDecimal(value < 0, digits, scale);
+                return;
+            }
+        }
+
+        // Needs more digits than can be checked exactly; rare enough to allocate
+        put(ascii(Double.toString(value)));
+    }
+
+    /**
+     * Writes {@code digits} times ten to the power of {@code -scale} in plain notation from
+     * 10^-3 up to 10^7 and in computerized scientific notation outside that range.
+     */
+    private void putDecimal(final boolean negative, final long digits, final int scale) {
+        long significand = digits;
+        int fractionDigits = scale;
+
+        while (significand % 10 == 0) {
+            significand /= 10;
+            fractionDigits--;
+        }
+
+        int length = 1;
+
+        while (length < LONG_POWERS_OF_TEN.length && significand >= LONG_POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        final int decimalExponent = length - 1 - fractionDigits;
+        ensure(length + 2 * DOUBLE_POWERS_OF_TEN.length);
+
+        if (negative) {
+            buffer.put((byte) '-');
+        }
+
+        if (decimalExponent >= -3 && decimalExponent < 7) {
+            if (fractionDigits <= 0) {
+                putDigits(significand, length);
+                putZeros(-fractionDigits);
+                buffer.put((byte) '.').put((byte) '0');
+            } else if (length > fractionDigits) {
+                putDigits(significand / LONG_POWERS_OF_TEN[fractionDigits], length - fractionDigits);
+                buffer.put((byte) '.');
+                putDigits(significand % LONG_POWERS_OF_TEN[fractionDigits], fractionDigits);
+            } else {
+                buffer.put((byte) '0').put((byte) '.');
+                putZeros(fractionDigits - length);
+                putDigits(significand, length);
+            }
+        } else {
+            putDigits(significand / LONG_POWERS_OF_TEN[length - 1], 1);
+            buffer.put((byte) '.');
+
+            if (length == 1) {
+                buffer.put((byte) '0');
+            } else {
+                putDigits(significand % LONG_POWERS_OF_TEN[length - 1], length - 1);
+            }
+
+            buffer.put((byte) 'E');
+            putLong(decimalExponent);
+        }
+    }
+
+    private void putZeros(final int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) '0');
+        }
+    }
+
+    private void putDigits(final long value, final int width) {
+        final int start = buffer.position();
+        long remaining = value;
+
+        for (int i = start + width - 1; i >= start; i--) {
+            buffer.put(i, (byte) ('0' + remaining % 10));
+            remaining /= 10;
+        }
+
+        buffer.position(start + width);
+    }
+
+    private static void writeDigits(final byte[] target, final int offset, final int value, final int width) {
+        int remaining = value;
+
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private void put(final byte value) {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    private void put(final byte[] bytes) {
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Copies a range of a buffer, in chunks if it is larger than the output buffer.
+     */
+    private void put(final ByteBuffer source, final int index, final int length) {
+        int copied = 0;
+
+        while (copied < length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+
+            final int chunk = Math.min(length - copied, buffer.remaining());
+            buffer.put(buffer.position(), source, index + copied, chunk);
+            buffer.position(buffer.position() + chunk);
+            copied += chunk;
+        }
+    }
+
+    private void ensure(final int length) {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void select(final WritableByteChannel channel) {
+        if (channel != current) {
+            flush();
+            current = channel;
+        }
+    }
+
+    private void flush() {
+        // A line rendered across this flush can no longer be taken back
+        lineStart = -1;
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+        } catch (final IOException e) {
+            System.err.println("Logging failure: " + e.getMessage());
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
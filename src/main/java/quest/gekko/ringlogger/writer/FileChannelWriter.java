@@ -0,0 +1,158 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.format.DefinitionTracker;
+import quest.gekko.ringlogger.format.SegmentFormat;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends raw entries to a file with one gathering write per drained batch.
+ * <p>
+ * Entries are written exactly as they were encoded into the ring, after a file header, in
+ * the binary layout described in {@link SegmentFormat}. Every open writes a header, so a file
+ * appended to by several processes holds one header section per process, each with that
+ * process's clock calibration and dictionaries. Whether and when the file is forced to disk
+ * is up to the {@link SyncPolicy}.
+ */
+public final class FileChannelWriter implements LogWriter {
+    private final FileChannel channel;
+    private final SyncPolicy syncPolicy;
+
+    // Reused for single-entry writes
+    private final ByteBuffer[] single = new ByteBuffer[1];
+
+    // Templates and component names already present in the file
+    private final DefinitionTracker definitions = new DefinitionTracker();
+
+    private long unsyncedBytes;
+    private long lastSync = System.nanoTime();
+
+    /**
+     * Opens the file for appending, creating it if missing.
+     *
+     * @param file file to append to
+     * @param syncPolicy when to force written entries to disk
+     */
+    public FileChannelWriter(final Path file, final SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+            // Monotonic timestamps and dictionary ids only mean something within one process
+            unsyncedBytes += writeFully(definitions.header());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void write(final ByteBuffer logEntry) {
+        single[0] = logEntry;
+        writeBatch(single, 1);
+        single[0] = null;
+    }
+
+    @Override
+    public void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        long batchLength = 0;
+        boolean containsError = false;
+
+        for (int i = 0; i < count; i++) {
+            final ByteBuffer entry = logEntries[i];
+            batchLength += entry.remaining();
+            containsError |= entry.get(entry.position() + LogEntry.LEVEL_OFFSET) >= LogLevel.ERROR.getValue();
+        }
+
+        try {
+            if (definitions.hasPending()) {
+                for (final ByteBuffer definition : definitions.pending()) {
+                    unsyncedBytes += writeFully(definition);
+                }
+            }
+
+            // A gathering write may stop early; resume from the first entry it did not finish
+            long remaining = batchLength;
+            int first = 0;
+
+            while (remaining > 0) {
+                remaining -= channel.write(logEntries, first, count - first);
+
+                while (first < count && !logEntries[first].hasRemaining()) {
+                    first++;
+                }
+            }
+
+            unsyncedBytes += batchLength;
+
+            final long now = System.nanoTime();
+
+            if (unsyncedBytes > 0 && syncPolicy.shouldSync(unsyncedBytes, now - lastSync, containsError)) {
+                sync(now);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onIdle() {
+        if (unsyncedBytes == 0) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+
+        if (syncPolicy.shouldSyncWhenIdle(now - lastSync)) {
+            try {
+                sync(now);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            // Covers interval policies whose deadline has not come yet
+            if (unsyncedBytes > 0 && syncPolicy.syncsOnClose()) {
+                sync(System.nanoTime());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                System.err.println("Logging failure: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Group commit: covers every entry written since the previous sync.
+     */
+    private void sync(final long now) throws IOException {
+        channel.force(false);
+        unsyncedBytes = 0;
+        lastSync = now;
+    }
+
+    private int writeFully(final ByteBuffer buffer) throws IOException {
+        final int length = buffer.remaining();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        return length;
+    }
+}
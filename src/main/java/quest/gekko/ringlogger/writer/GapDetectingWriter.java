@@ -0,0 +1,131 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Writer decorator that reports entries lost to backpressure.
+ * <p>
+ * Every entry carries its thread's ordinal and a per-thread sequence number. When the
+ * sequence of a thread skips ahead, the skipped entries were dropped or evicted, and a
+ * single synthetic entry flagged {@link LogEntry#FLAG_GAP} is written ahead of the entry
+ * that revealed the gap. Producers do no extra bookkeeping for this. A thread's first entry,
+ * flagged {@link LogEntry#FLAG_THREAD_START}, restarts the count for its ordinal, which may
+ * have been recycled from a thread that ended.
+ */
+public final class GapDetectingWriter implements LogWriter {
+    private static final int ORDINAL_COUNT = 1 << Short.SIZE;
+
+    private final LogWriter delegate;
+
+    // Next expected sequence per thread ordinal; only touched by the logging thread
+    private final int[] expectedSequences = new int[ORDINAL_COUNT];
+    private final BitSet seen = new BitSet(ORDINAL_COUNT);
+
+    // Entries of a batch that precede a gap marker
+    private ByteBuffer[] pending = new ByteBuffer[0];
+
+    public GapDetectingWriter(final LogWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(final ByteBuffer logEntry) {
+        final ByteBuffer marker = check(logEntry);
+
+        if (marker != null) {
+            delegate.write(marker);
+        }
+
+        delegate.write(logEntry);
+    }
+
+    @Override
+    public void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        int start = 0;
+
+        for (int i = 0; i < count; i++) {
+            final ByteBuffer marker = check(logEntries[i]);
+
+            if (marker != null) {
+                // Keep order: entries before the gap, then the marker
+                flush(logEntries, start, i);
+                delegate.write(marker);
+                start = i;
+            }
+        }
+
+        if (start == 0) {
+            delegate.writeBatch(logEntries, count);
+        } else {
+            flush(logEntries, start, count);
+        }
+    }
+
+    @Override
+    public void onIdle() {
+        delegate.onIdle();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void flush(final ByteBuffer[] logEntries, final int from, final int to) {
+        if (to <= from) {
+            return;
+        }
+
+        if (pending.length < to - from) {
+            pending = Arrays.copyOf(pending, logEntries.length);
+        }
+
+        System.arraycopy(logEntries, from, pending, 0, to - from);
+        delegate.writeBatch(pending, to - from);
+    }
+
+    /**
+     * Advances the expected sequence of the entry's thread.
+     *
+     * @param logEntry entry to check
+     * @return a gap marker to write before the entry, or null if nothing was lost
+     */
+    private ByteBuffer check(final ByteBuffer logEntry) {
+        final int base = logEntry.position();
+        final int ordinal = Short.toUnsignedInt(logEntry.getShort(base + LogEntry.THREAD_ORDINAL_OFFSET));
+        final int sequence = logEntry.getInt(base + LogEntry.SEQUENCE_OFFSET);
+        final int expected = expectedSequences[ordinal];
+
+        expectedSequences[ordinal] = sequence + 1;
+
+        if (!seen.get(ordinal) || (logEntry.get(base + LogEntry.FLAGS_OFFSET) & LogEntry.FLAG_THREAD_START) != 0) {
+            seen.set(ordinal);
+
+            // Entries lost before the thread's first written one still count
+            return sequence == 0 ? null : marker(logEntry, ordinal, 0, sequence);
+        }
+
+        return sequence == expected ? null : marker(logEntry, ordinal, expected, sequence);
+    }
+
+    /**
+     * Encodes a synthetic entry reporting the sequence numbers from {@code first} up to,
+     * but excluding, {@code next} as lost.
+     */
+    private static ByteBuffer marker(final ByteBuffer logEntry, final int ordinal, final int first, final int next) {
+        final int base = logEntry.position();
+        final long lost = Integer.toUnsignedLong(next - first);
+        final byte[] message = (lost + " entries lost between seq " + Integer.toUnsignedString(first)
+                + " and " + Integer.toUnsignedString(next)).getBytes(StandardCharsets.UTF_8);
+        final byte flags = (byte) (LogEntry.FLAG_GAP | logEntry.get(base + LogEntry.FLAGS_OFFSET) & LogEntry.FLAG_EPOCH_TIMESTAMP);
+
+        return LogEntry.encode(logEntry.getLong(base + LogEntry.TIMESTAMP_OFFSET), LogLevel.WARN,
+                logEntry.get(base + LogEntry.COMPONENT_ID_OFFSET), flags, (short) ordinal, first, message);
+    }
+}
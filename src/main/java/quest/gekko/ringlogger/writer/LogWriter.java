@@ -1,33 +1,108 @@
 package quest.gekko.ringlogger.writer;
 
-import quest.gekko.ringlogger.model.LogEntry;
-import quest.gekko.ringlogger.model.LogLevel;
-
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 @FunctionalInterface
-public interface LogWriter {
+public interface LogWriter extends AutoCloseable {
     /**
-     * Writes a log entry from the given ByteBuffer.
+     * Writes a log entry from the given ByteBuffer. The entry spans the buffer's
+     * position to its limit and is only valid for the duration of the call.
      *
      * @param logEntry the log entry buffer
      */
     void write(final ByteBuffer logEntry);
 
     /**
-     * Default console log writer.
+     * Writes a batch of log entries drained from the ring in one pass. Sinks that can
+     * issue a single system call for several entries should override this; the entries
+     * and the array are only valid for the duration of the call.
+     *
+     * @param logEntries buffers holding the entries, each spanning its position to its limit
+     * @param count number of valid entries at the start of the array
+     */
+    default void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        for (int i = 0; i < count; i++) {
+            write(logEntries[i]);
+        }
+    }
+
+    /**
+     * Called by the logging thread when a drain pass found nothing to write, so sinks can
+     * finish time-based work such as a pending sync without waiting for the next entry.
+     * Called on every idle pass, so it must return quickly when there is nothing to do.
+     */
+    default void onIdle() {
+    }
+
+    /**
+     * Releases the sink once the logging thread has written its last entry. Called on the
+     * logging thread after shutdown.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Appends raw entries to memory-mapped segment files, leaving syncing to the OS.
+     *
+     * @param directory directory holding the segments
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes
+     * @return a LogWriter that persists entries through memory-mapped files
+     */
+    static LogWriter mappedFile(final Path directory, final String baseName, final int segmentSize) {
+        return new MappedFileWriter(directory, baseName, segmentSize, false);
+    }
+
+    /**
+     * Appends raw entries to memory-mapped segment files, rotating them by the given policy.
+     *
+     * @param directory directory holding the segments
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes
+     * @param rotationPolicy when to leave a segment before it is full
+     * @return a LogWriter that persists entries through rotating memory-mapped files
+     */
+    static LogWriter mappedFile(final Path directory, final String baseName, final int segmentSize,
+                                final RotationPolicy rotationPolicy) {
+        return new MappedFileWriter(directory, baseName, segmentSize, false, rotationPolicy);
+    }
+
+    /**
+     * Appends raw entries to memory-mapped segment files, rotating them by the given policy and
+     * compressing every segment left behind on a background thread.
+     *
+     * @param directory directory holding the segments
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes
+     * @param rotationPolicy when to leave a segment before it is full
+     * @param compressionLevel deflate level of closed segments, from 1 (fastest) to 9 (smallest)
+     * @return a LogWriter that persists entries through rotating, compressed segment files
+     */
+    static LogWriter mappedFile(final Path directory, final String baseName, final int segmentSize,
+                                final RotationPolicy rotationPolicy, final int compressionLevel) {
+        return new MappedFileWriter(directory, baseName, segmentSize, false, rotationPolicy,
+                new SegmentCompressor(compressionLevel));
+    }
+
+    /**
+     * Appends raw entries to a file with one gathering write per batch.
+     *
+     * @param file file to append to
+     * @param syncPolicy when to force written entries to disk
+     * @return a LogWriter that persists entries through a FileChannel
+     */
+    static LogWriter file(final Path file, final SyncPolicy syncPolicy) {
+        return new FileChannelWriter(file, syncPolicy);
+    }
+
+    /**
+     * Default console log writer, rendering entries to stdout and stderr without per-entry garbage.
      *
      * @return a LogWriter that writes to console
      */
     static LogWriter consoleWriter() {
-        return buffer -> {
-            final LogEntry entry = new LogEntry(buffer);
-
-            if (entry.getLevel().getValue() >= LogLevel.ERROR.getValue()) {
-                System.err.println(entry.format());
-            } else {
-                System.out.println(entry.format());
-            }
-        };
+        return new ConsoleWriter();
     }
-}
\ No newline at end of file
+}
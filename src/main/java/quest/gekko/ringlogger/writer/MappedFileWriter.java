@@ -0,0 +1,327 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.format.DefinitionTracker;
+import quest.gekko.ringlogger.format.SegmentFormat;
+import quest.gekko.ringlogger.model.LogEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends raw entries to a sequence of memory-mapped segment files.
+ * <p>
+ * Segments use the binary layout described in {@link SegmentFormat}. Entries are copied into
+ * the mapping byte for byte, exactly as they were encoded into the ring, so writing is a plain
+ * memory copy with no system call; a zero level byte, which no real entry has, marks the end
+ * of the data in a segment.
+ * <p>
+ * The writer rolls to the next segment when an entry does not fit or the {@link RotationPolicy}
+ * asks for it. A helper thread has already created, sized and pre-faulted that segment, so for
+ * the logging thread rotation is a swap of mappings; the helper also forces the segment left
+ * behind when {@code forceOnRoll} is set. Otherwise dirty pages are written back by the OS.
+ * <p>
+ * With a {@link SegmentCompressor}, every segment left behind, and the last one on close, is
+ * handed to the compressor's background thread and replaced by its compressed form.
+ */
+public final class MappedFileWriter implements LogWriter {
+    private static final int PAGE_SIZE = 4096;
+    private static final String SEGMENT_EXTENSION = ".log";
+
+    private final Path directory;
+    private final String baseName;
+    private final int segmentSize;
+    private final boolean forceOnRoll;
+    private final RotationPolicy rotationPolicy;
+    private final SegmentCompressor compressor;
+
+    // Creates and maps segments ahead of the logging thread
+    private final ExecutorService allocator = Executors.newSingleThreadExecutor(task -> {
+        final Thread thread = new Thread(task, "ringlogger-segment-allocator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Templates, component and thread names already present in the current segment
+    private final DefinitionTracker definitions = new DefinitionTracker();
+
+    private MappedByteBuffer segment;
+    private CompletableFuture<MappedByteBuffer> nextSegment;
+    private int segmentIndex;
+    private int position;
+    private int headerLength;
+    private long openedAtMillis;
+
+    /**
+     * Creates the first two segments, numbered after any segment already in the directory.
+     *
+     * @param directory directory holding the segments, created if missing
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes; must hold the largest entry
+     * @param forceOnRoll whether to force each full segment to disk when rolling
+     */
+    public MappedFileWriter(final Path directory, final String baseName, final int segmentSize, final boolean forceOnRoll) {
+        this(directory, baseName, segmentSize, forceOnRoll, RotationPolicy.whenFull());
+    }
+
+    /**
+     * Creates the first two segments, numbered after any segment already in the directory.
+     *
+     * @param directory directory holding the segments, created if missing
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes; must hold the largest entry
+     * @param forceOnRoll whether to force each segment to disk after leaving it
+     * @param rotationPolicy when to leave a segment before it is full
+     */
+    public MappedFileWriter(final Path directory, final String baseName, final int segmentSize, final boolean forceOnRoll,
+                            final RotationPolicy rotationPolicy) {
+        this(directory, baseName, segmentSize, forceOnRoll, rotationPolicy, null);
+    }
+
+    /**
+     * Creates the first two segments, numbered after any segment already in the directory.
+     *
+     * @param directory directory holding the segments, created if missing
+     * @param baseName file name prefix of the segments
+     * @param segmentSize size of each segment file in bytes; must hold the largest entry
+     * @param forceOnRoll whether to force each segment to disk after leaving it
+     * @param rotationPolicy when to leave a segment before it is full
+     * @param compressor compresses segments once left behind, or null to keep them raw;
+     *                   owned and closed by this writer
+     */
+    public MappedFileWriter(final Path directory, final String baseName, final int segmentSize, final boolean forceOnRoll,
+                            final RotationPolicy rotationPolicy, final SegmentCompressor compressor) {
+        if (segmentSize < LogEntry.HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size must hold an entry header: " + segmentSize);
+        }
+
+        this.directory = directory;
+        this.baseName = baseName;
+        // A byte limit below the segment size shrinks the preallocated files instead
+        this.segmentSize = (int) Math.min(segmentSize, rotationPolicy.maxBytes());
+        this.forceOnRoll = forceOnRoll;
+        this.rotationPolicy = rotationPolicy;
+        this.compressor = compressor;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Resume after the segments of earlier runs instead of colliding with them
+        this.segmentIndex = nextFreeIndex();
+        this.segment = map(segmentIndex);
+
+        final int following = segmentIndex + 1;
+        this.nextSegment = CompletableFuture.supplyAsync(() -> map(following), allocator);
+        appendHeader();
+    }
+
+    @Override
+    public void write(final ByteBuffer logEntry) {
+        rotateIfDue();
+        appendDefinitions();
+        definitions.observe(logEntry);
+        append(logEntry);
+    }
+
+    @Override
+    public void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        rotateIfDue();
+        appendDefinitions();
+
+        for (int i = 0; i < count; i++) {
+            definitions.observe(logEntries[i]);
+            append(logEntries[i]);
+        }
+    }
+
+    @Override
+    public void onIdle() {
+        // A time-based segment is left behind on schedule even when no entry arrives to do it
+        rotateIfDue();
+    }
+
+    @Override
+    public void close() {
+        final MappedByteBuffer last = segment;
+
+        if (forceOnRoll) {
+            allocator.execute(last::force);
+        }
+
+        allocator.shutdown();
+
+        try {
+            allocator.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        deleteUnusedSegment();
+
+        if (compressor != null) {
+            if (position > headerLength) {
+                compressor.compress(segmentPath(segmentIndex), position);
+            }
+
+            compressor.close();
+        }
+    }
+
+    /**
+     * Returns the path of a segment.
+     *
+     * @param index segment number
+     * @return path of the segment file
+     */
+    public Path segmentPath(final int index) {
+        return directory.resolve(String.format("%s-%06d%s", baseName, index, SEGMENT_EXTENSION));
+    }
+
+    /**
+     * Finds the first index after every segment of this base name in the directory, raw or
+     * compressed.
+     */
+    private int nextFreeIndex() {
+        final String prefix = baseName + "-";
+        int next = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> file.getFileName().toString().startsWith(prefix))) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                int end = prefix.length();
+
+                while (end < name.length() && Character.isDigit(name.charAt(end))) {
+                    end++;
+                }
+
+                if (end > prefix.length() && name.startsWith(SEGMENT_EXTENSION, end)) {
+                    next = Math.max(next, Integer.parseInt(name, prefix.length(), end, 10) + 1);
+                }
+            }
+        } catch (final IOException | NumberFormatException e) {
+            throw new IllegalStateException("Cannot number segments in " + directory, e);
+        }
+
+        return next;
+    }
+
+    /**
+     * Removes the segment mapped ahead of time if no entry reached it, so it neither
+     * lingers as a zero-filled file nor shifts the numbering of the next run.
+     */
+    private void deleteUnusedSegment() {
+        try {
+            nextSegment.join();
+            Files.deleteIfExists(segmentPath(segmentIndex + 1));
+        } catch (final IOException | RuntimeException e) {
+            System.err.println("Logging failure: " + e.getMessage());
+        }
+    }
+
+    private void rotateIfDue() {
+        if (rotationPolicy.isTimeBased()) {
+            final long now = System.currentTimeMillis();
+
+            if (rotationPolicy.shouldRotate(openedAtMillis, now)) {
+                if (position > headerLength) {
+                    roll();
+                } else {
+                    // Nothing written yet; keep the segment instead of leaving an empty one behind
+                    openedAtMillis = now;
+                }
+            }
+        }
+    }
+
+    private void roll() {
+        final MappedByteBuffer previous = segment;
+
+        if (forceOnRoll) {
+            allocator.execute(previous::force);
+        }
+
+        if (compressor != null) {
+            compressor.compress(segmentPath(segmentIndex), position);
+        }
+
+        segment = nextSegment.join();
+        segmentIndex++;
+        position = 0;
+
+        final int following = segmentIndex + 1;
+        nextSegment = CompletableFuture.supplyAsync(() -> map(following), allocator);
+        appendHeader();
+    }
+
+    private void append(final ByteBuffer logEntry) {
+        final int length = logEntry.remaining();
+
+        if (length > segmentSize - position) {
+            roll();
+
+            if (length > segmentSize - position) {
+                throw new IllegalArgumentException("Entry of " + length + " bytes exceeds the " + segmentSize + "-byte segment");
+            }
+        }
+
+        segment.put(position, logEntry, logEntry.position(), length);
+        position += length;
+    }
+
+    /**
+     * Starts the current segment with a file header holding every current definition.
+     */
+    private void appendHeader() {
+        final ByteBuffer header = definitions.header();
+
+        if (header.remaining() > segmentSize) {
+            throw new IllegalStateException("Segment header of " + header.remaining() + " bytes exceeds the " + segmentSize + "-byte segment");
+        }
+
+        segment.put(0, header, 0, header.remaining());
+        headerLength = header.remaining();
+        position = headerLength;
+        openedAtMillis = System.currentTimeMillis();
+    }
+
+    private void appendDefinitions() {
+        if (definitions.hasPending()) {
+            for (final ByteBuffer definition : definitions.pending()) {
+                append(definition);
+            }
+        }
+    }
+
+    /**
+     * Creates a zero-filled segment file and maps it, touching every page so the logging
+     * thread never takes a page fault on first write.
+     */
+    private MappedByteBuffer map(final int index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+            for (int page = 0; page < segmentSize; page += PAGE_SIZE) {
+                mapped.put(page, (byte) 0);
+            }
+
+            return mapped;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package quest.gekko.ringlogger.writer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a segmented file sink moves on to its next segment.
+ * <p>
+ * A segment is always left once it is full. A policy can end segments earlier: past a byte
+ * limit, when the wall clock crosses an interval boundary, or once the segment has been
+ * open for a given time. Limits combine, and whichever is reached first wins. Time limits
+ * are checked whenever entries are written, so an idle sink does not create empty segments.
+ */
+public final class RotationPolicy {
+    private final long maxBytes;
+    private final long intervalMillis;
+    private final long maxAgeMillis;
+
+    private RotationPolicy(final long maxBytes, final long intervalMillis, final long maxAgeMillis) {
+        this.maxBytes = maxBytes;
+        this.intervalMillis = intervalMillis;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Only rotates when a segment is full.
+     *
+     * @return a size-only rotation policy
+     */
+    public static RotationPolicy whenFull() {
+        return new RotationPolicy(Long.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * Rotates before a segment would grow beyond the given size.
+     *
+     * @param maxBytes largest number of bytes written to one segment
+     * @return a max-bytes rotation policy
+     */
+    public static RotationPolicy maxBytes(final long maxBytes) {
+        return whenFull().orMaxBytes(maxBytes);
+    }
+
+    /**
+     * Rotates whenever the wall clock crosses a multiple of the interval since the epoch,
+     * e.g. on the hour for an interval of one hour.
+     *
+     * @param interval length of one interval
+     * @param unit unit of the interval
+     * @return an interval rotation policy
+     */
+    public static RotationPolicy every(final long interval, final TimeUnit unit) {
+        return whenFull().orEvery(interval, unit);
+    }
+
+    /**
+     * Rotates once a segment has been open for the given time.
+     *
+     * @param maxAge longest time a segment stays current
+     * @param unit unit of the age
+     * @return a max-age rotation policy
+     */
+    public static RotationPolicy maxAge(final long maxAge, final TimeUnit unit) {
+        return whenFull().orMaxAge(maxAge, unit);
+    }
+
+    public RotationPolicy orMaxBytes(final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Max bytes must be positive: " + maxBytes);
+        }
+
+        return new RotationPolicy(Math.min(this.maxBytes, maxBytes), intervalMillis, maxAgeMillis);
+    }
+
+    public RotationPolicy orEvery(final long interval, final TimeUnit unit) {
+        final long millis = unit.toMillis(interval);
+
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Interval must be at least one millisecond: " + interval + " " + unit);
+        }
+
+        return new RotationPolicy(maxBytes, millis, maxAgeMillis);
+    }
+
+    public RotationPolicy orMaxAge(final long maxAge, final TimeUnit unit) {
+        final long millis = unit.toMillis(maxAge);
+
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Max age must be at least one millisecond: " + maxAge + " " + unit);
+        }
+
+        return new RotationPolicy(maxBytes, intervalMillis, millis);
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    boolean isTimeBased() {
+        return intervalMillis > 0 || maxAgeMillis > 0;
+    }
+
+    /**
+     * Called by the sink before writing a batch.
+     *
+     * @param openedAtMillis wall-clock time the current segment was opened
+     * @param nowMillis current wall-clock time
+     * @return true if the current segment should be left now
+     */
+    boolean shouldRotate(final long openedAtMillis, final long nowMillis) {
+        if (maxAgeMillis > 0 && nowMillis - openedAtMillis >= maxAgeMillis) {
+            return true;
+        }
+
+        return intervalMillis > 0 && Math.floorDiv(nowMillis, intervalMillis) != Math.floorDiv(openedAtMillis, intervalMillis);
+    }
+}
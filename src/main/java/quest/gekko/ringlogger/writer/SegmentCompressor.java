@@ -0,0 +1,146 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.format.BlockCompressor;
+import quest.gekko.ringlogger.format.CompressedSegmentFormat;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses closed segments on a low-priority background thread.
+ * <p>
+ * Each segment is rewritten as {@code <segment>.rlz} in the block-compressed layout of
+ * {@link CompressedSegmentFormat}, then the raw file is deleted. Only the written part of a
+ * segment is compressed, so the zero-filled tail of a preallocated file costs nothing. Work is
+ * queued by the logging thread and never runs on it. An existing compressed file is never
+ * replaced: the segment is then left raw and the failure reported.
+ */
+public final class SegmentCompressor implements AutoCloseable {
+    public static final String EXTENSION = ".rlz";
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+    private final int level;
+    private final int blockSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        final Thread thread = new Thread(task, "ringlogger-segment-compressor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Confined to the executor thread
+    private BlockCompressor compressor;
+
+    /**
+     * Creates a compressor using {@link #DEFAULT_BLOCK_SIZE} blocks.
+     *
+     * @param level deflate level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     */
+    public SegmentCompressor(final int level) {
+        this(level, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a compressor.
+     *
+     * @param level deflate level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     * @param blockSize raw bytes per block; smaller blocks seek faster but compress worse
+     */
+    public SegmentCompressor(final int level, final int blockSize) {
+        // Validate eagerly rather than failing on the first closed segment
+        new BlockCompressor(level, blockSize).close();
+
+        this.level = level;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Queues a closed segment for compression.
+     *
+     * @param segment path of the raw segment file
+     * @param length number of bytes written to the segment
+     */
+    public void compress(final Path segment, final int length) {
+        executor.execute(() -> {
+            try {
+                compressNow(segment, length);
+            } catch (final IOException | RuntimeException e) {
+                System.err.println("Logging failure: cannot compress " + segment + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Finishes every queued segment and stops the background thread.
+     */
+    @Override
+    public void close() {
+        executor.execute(() -> {
+            if (compressor != null) {
+                compressor.close();
+            }
+        });
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void compressNow(final Path segment, final int length) throws IOException {
+        if (compressor == null) {
+            compressor = new BlockCompressor(level, blockSize);
+        }
+
+        final Path target = segment.resolveSibling(segment.getFileName() + EXTENSION);
+        final Path partial = segment.resolveSibling(segment.getFileName() + EXTENSION + ".tmp");
+
+        // Never overwrite an earlier compressed segment; the raw file is kept instead
+        if (Files.exists(target)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        try (FileChannel source = FileChannel.open(segment, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.WRITE)) {
+            final MappedByteBuffer raw = source.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            compressor.compress(raw, output);
+            output.force(false);
+        }
+
+        // Readers only ever see a complete compressed file, and the raw one until it exists
+        publish(partial, target);
+
+        Files.delete(segment);
+    }
+
+    /**
+     * Moves a finished file into place without ever replacing an existing one. A hard link
+     * fails if the target exists, where an atomic rename would silently replace it; file
+     * systems without hard links fall back to a checked rename.
+     */
+    private static void publish(final Path partial, final Path target) throws IOException {
+        try {
+            Files.createLink(target, partial);
+            Files.delete(partial);
+        } catch (final FileAlreadyExistsException e) {
+            Files.delete(partial);
+            throw e;
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            Files.move(partial, target);
+        }
+    }
+}
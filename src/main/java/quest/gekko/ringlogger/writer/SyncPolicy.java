@@ -0,0 +1,112 @@
+package quest.gekko.ringlogger.writer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a file sink forces written entries to disk.
+ * <p>
+ * Every sync is a group commit: it covers all entries written since the previous sync,
+ * however many batches that spans, so durability never costs one flush per log call.
+ */
+public final class SyncPolicy {
+    private enum Mode {
+        NEVER,
+        EVERY_BYTES,
+        EVERY_INTERVAL,
+        ON_ERROR
+    }
+
+    private final Mode mode;
+    private final long limit;
+
+    private SyncPolicy(final Mode mode, final long limit) {
+        this.mode = mode;
+        this.limit = limit;
+    }
+
+    /**
+     * Never syncs explicitly, leaving write-back to the operating system.
+     *
+     * @return a never-sync policy
+     */
+    public static SyncPolicy never() {
+        return new SyncPolicy(Mode.NEVER, 0);
+    }
+
+    /**
+     * Syncs once at least the given number of bytes were written since the last sync.
+     *
+     * @param bytes bytes written between syncs
+     * @return an every-N-bytes policy
+     */
+    public static SyncPolicy everyBytes(final long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Byte threshold must be positive: " + bytes);
+        }
+
+        return new SyncPolicy(Mode.EVERY_BYTES, bytes);
+    }
+
+    /**
+     * Syncs once the given time has passed since the last sync, checked after every batch and
+     * while the logging thread is idle, so the last entries before a quiet period are not left
+     * unsynced until the next one arrives.
+     *
+     * @param interval minimum time between syncs
+     * @param unit unit of the interval
+     * @return an every-T policy
+     */
+    public static SyncPolicy every(final long interval, final TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+
+        return new SyncPolicy(Mode.EVERY_INTERVAL, unit.toNanos(interval));
+    }
+
+    /**
+     * Syncs after every batch containing an ERROR entry, so the error and everything logged
+     * before it are on disk.
+     *
+     * @return an on-error policy
+     */
+    public static SyncPolicy onError() {
+        return new SyncPolicy(Mode.ON_ERROR, 0);
+    }
+
+    /**
+     * Called by the sink after writing a batch.
+     *
+     * @param unsyncedBytes bytes written since the last sync, this batch included
+     * @param nanosSinceSync time elapsed since the last sync
+     * @param containsError whether the batch held an ERROR entry
+     * @return true if the sink should sync now
+     */
+    boolean shouldSync(final long unsyncedBytes, final long nanosSinceSync, final boolean containsError) {
+        return switch (mode) {
+            case NEVER -> false;
+            case EVERY_BYTES -> unsyncedBytes >= limit;
+            case EVERY_INTERVAL -> nanosSinceSync >= limit;
+            case ON_ERROR -> containsError;
+        };
+    }
+
+    /**
+     * Called by the sink while the logging thread has nothing to write.
+     *
+     * @param nanosSinceSync time elapsed since the last sync
+     * @return true if the sink should sync the bytes it wrote since the last sync now
+     */
+    boolean shouldSyncWhenIdle(final long nanosSinceSync) {
+        return mode == Mode.EVERY_INTERVAL && nanosSinceSync >= limit;
+    }
+
+    /**
+     * Called by the sink when it closes.
+     *
+     * @return true if entries still unsynced at shutdown should be forced to disk
+     */
+    boolean syncsOnClose() {
+        return mode != Mode.NEVER;
+    }
+}
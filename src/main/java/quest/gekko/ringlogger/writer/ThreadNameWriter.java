@@ -0,0 +1,72 @@
+package quest.gekko.ringlogger.writer;
+
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Writer decorator that announces every producer thread once.
+ * <p>
+ * Before the first entry carrying a new thread ordinal reaches the delegate, a synthetic
+ * entry flagged {@link LogEntry#FLAG_THREAD_NAME} is written whose message is the thread's
+ * name. Readers keep that mapping and resolve the ordinals of later entries from it. An
+ * entry flagged {@link LogEntry#FLAG_THREAD_START} comes from a thread that may have taken
+ * over the ordinal of one that ended, so the ordinal is announced again.
+ */
+public final class ThreadNameWriter implements LogWriter {
+    private final LogWriter delegate;
+
+    // Ordinals already announced; only touched by the logging thread
+    private final BitSet announced = new BitSet();
+
+    public ThreadNameWriter(final LogWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(final ByteBuffer logEntry) {
+        announce(logEntry);
+        delegate.write(logEntry);
+    }
+
+    @Override
+    public void writeBatch(final ByteBuffer[] logEntries, final int count) {
+        for (int i = 0; i < count; i++) {
+            announce(logEntries[i]);
+        }
+
+        delegate.writeBatch(logEntries, count);
+    }
+
+    @Override
+    public void onIdle() {
+        delegate.onIdle();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void announce(final ByteBuffer logEntry) {
+        final int base = logEntry.position();
+        final int ordinal = Short.toUnsignedInt(logEntry.getShort(base + LogEntry.THREAD_ORDINAL_OFFSET));
+
+        if (ordinal == Short.toUnsignedInt(ThreadDictionary.NO_THREAD)
+                || announced.get(ordinal) && (logEntry.get(base + LogEntry.FLAGS_OFFSET) & LogEntry.FLAG_THREAD_START) == 0) {
+            return;
+        }
+
+        announced.set(ordinal);
+
+        final byte[] name = ThreadDictionary.getInstance().name(ordinal).getBytes(StandardCharsets.UTF_8);
+        final byte flags = (byte) (LogEntry.FLAG_THREAD_NAME | logEntry.get(base + LogEntry.FLAGS_OFFSET) & LogEntry.FLAG_EPOCH_TIMESTAMP);
+
+        delegate.write(LogEntry.encode(logEntry.getLong(base + LogEntry.TIMESTAMP_OFFSET), LogLevel.INFO,
+                (byte) 0, flags, (short) ordinal, 0, name));
+    }
+}
@@ -0,0 +1,265 @@
+package quest.gekko.ringlogger;
+
+import org.junit.jupiter.api.Test;
+import quest.gekko.ringlogger.clock.TimestampSource;
+import quest.gekko.ringlogger.model.Arguments;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.writer.LogWriter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingLoggerTest {
+    private static final byte COMPONENT_ID = 1;
+    private static final String DRAIN_MARKER = "drained";
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final Semaphore drained = new Semaphore(0);
+
+    private RingLogger.Builder collecting() {
+        return RingLogger.builder().writer(draining(entry -> messages.add(new LogEntry(entry).getMessage())));
+    }
+
+    /**
+     * Wraps a sink so {@link #drain(RingLogger)} can tell when it has caught up.
+     */
+    private LogWriter draining(final LogWriter sink) {
+        return entry -> {
+            if (new LogEntry(entry).getMessage().equals(DRAIN_MARKER)) {
+                drained.release();
+            } else {
+                sink.write(entry);
+            }
+        };
+    }
+
+    /**
+     * Logs a marker and waits for the sink to reach it, so everything logged before it has
+     * been written, rather than relying on shutdown to finish in time.
+     */
+    private void drain(final RingLogger logger) throws InterruptedException {
+        logger.writeString(LogLevel.INFO, COMPONENT_ID, DRAIN_MARKER);
+        assertTrue(drained.tryAcquire(10, TimeUnit.SECONDS), "the logger did not drain");
+    }
+
+    @Test
+    void negativeClaimLengthIsRejectedWithoutDamagingTheRing() throws InterruptedException {
+        final RingLogger logger = collecting().build();
+
+        assertThrows(IllegalArgumentException.class, () -> logger.claim(LogLevel.INFO, COMPONENT_ID, -64));
+
+        for (int i = 0; i < 3; i++) {
+            logger.writeString(LogLevel.INFO, COMPONENT_ID, "entry " + i);
+        }
+
+        drain(logger);
+
+        logger.shutdown();
+
+        assertEquals(List.of("entry 0", "entry 1", "entry 2"), messages);
+        assertEquals(0L, logger.getDroppedCount());
+    }
+
+    @Test
+    void openClaimOnOneLoggerIsNotDisturbedByAnother() throws InterruptedException {
+        final RingLogger first = collecting().build();
+        final RingLogger second = collecting().build();
+
+        final LogClaim open = first.claimFormat(LogLevel.INFO, COMPONENT_ID, "answer {}", Arguments.LONG_SIZE);
+        second.writeString(LogLevel.INFO, COMPONENT_ID, "from the second logger");
+        open.arg(42L).commit();
+
+        drain(first);
+        drain(second);
+        first.shutdown();
+        second.shutdown();
+
+        // Each logger has its own thread, so only the set of entries is deterministic
+        assertEquals(List.of("answer 42", "from the second logger"), messages.stream().sorted().toList());
+    }
+
+    @Test
+    void failedWriteLeavesTheCallersOpenClaimAlone() throws InterruptedException {
+        final RingLogger logger = collecting().build();
+
+        final LogClaim open = logger.claim(LogLevel.INFO, COMPONENT_ID, 16);
+        logger.writeString(LogLevel.INFO, COMPONENT_ID, "rejected while a claim is open");
+        open.putBytes("still open".getBytes(StandardCharsets.UTF_8)).commit();
+
+        drain(logger);
+
+        logger.shutdown();
+
+        assertEquals(List.of("still open"), messages);
+    }
+
+    @Test
+    void longStringArgumentLeavesRoomForTheArgumentsAfterIt() throws InterruptedException {
+        final List<String> truncated = new CopyOnWriteArrayList<>();
+        final RingLogger logger = RingLogger.builder()
+                .maxEntrySize(64)
+                .writer(draining(entry -> {
+                    final LogEntry decoded = new LogEntry(entry);
+                    (decoded.isTruncated() ? truncated : messages).add(decoded.getMessage());
+                }))
+                .build();
+        final int templateId = RingLogger.registerTemplate("order {} filled {}");
+
+        logger.log(LogLevel.INFO, COMPONENT_ID, templateId, "x".repeat(200), 42L);
+        drain(logger);
+        logger.shutdown();
+
+        assertEquals(List.of(), messages);
+        assertEquals(1, truncated.size());
+        assertTrue(truncated.get(0).startsWith("order xxx"), truncated.get(0));
+        assertTrue(truncated.get(0).endsWith(" filled 42"), truncated.get(0));
+        assertEquals(0L, logger.getDroppedCount());
+    }
+
+    @Test
+    void argumentsThatDoNotFitAreLeftOutAndTheEntryIsFlagged() throws InterruptedException {
+        final List<String> truncated = new CopyOnWriteArrayList<>();
+        final RingLogger logger = RingLogger.builder()
+                .writer(draining(entry -> {
+                    final LogEntry decoded = new LogEntry(entry);
+                    (decoded.isTruncated() ? truncated : messages).add(decoded.getMessage());
+                }))
+                .build();
+
+        // The caller under-reports the arguments: the string takes all the space
+        logger.claimFormat(LogLevel.INFO, COMPONENT_ID, "{} {}", Arguments.STRING_HEADER_SIZE + 4)
+                .arg("truncated")
+                .arg(42L)
+                .commit();
+        drain(logger);
+        logger.shutdown();
+
+        assertEquals(List.of(), messages);
+        assertEquals(List.of("trun {}"), truncated);
+    }
+
+    @Test
+    void unknownTemplateIdIsRejectedWithoutLosingOtherEntries() throws InterruptedException {
+        final RingLogger logger = collecting().build();
+        final int templateId = RingLogger.registerTemplate("value {}");
+        final int unknownId = 999_999;
+
+        assertThrows(IllegalArgumentException.class, () -> logger.claimTemplate(LogLevel.INFO, COMPONENT_ID, unknownId, 0));
+
+        for (int i = 0; i < 10; i++) {
+            logger.log(LogLevel.INFO, COMPONENT_ID, i == 5 ? unknownId : templateId, i);
+        }
+
+        drain(logger);
+
+        logger.shutdown();
+
+        assertEquals(List.of("value 0", "value 1", "value 2", "value 3", "value 4",
+                "value 6", "value 7", "value 8", "value 9"), messages);
+    }
+
+    @Test
+    void entryWithAnUnknownTemplateIdRendersAsAPlaceholder() {
+        final ByteBuffer message = ByteBuffer.allocate(Arguments.TEMPLATE_SIZE + Arguments.LONG_SIZE)
+                .put(Arguments.TAG_TEMPLATE).putInt(999_999)
+                .put(Arguments.TAG_LONG).putLong(5);
+        final ByteBuffer entry = LogEntry.encode(0, LogLevel.INFO, COMPONENT_ID, LogEntry.FLAG_TYPED,
+                (short) 0, 0, message.array());
+
+        assertEquals("<unknown template 999999> 5", new LogEntry(entry).getMessage());
+    }
+
+    @Test
+    void dropOldestEvictsInsteadOfDroppingTheNewEntry() throws InterruptedException {
+        final RingLogger logger = RingLogger.builder()
+                .capacity(1 << 13)
+                .maxEntrySize(256)
+                .backpressurePolicy(BackpressurePolicy.dropOldest())
+                .writer(draining(entry -> {
+                    // A slow sink keeps the ring full
+                    for (int i = 0; i < 2000; i++) {
+                        Thread.onSpinWait();
+                    }
+
+                    messages.add(new LogEntry(entry).getMessage());
+                }))
+                .build();
+        final Thread[] producers = new Thread[4];
+
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    logger.writeString(LogLevel.INFO, COMPONENT_ID, "entry " + i);
+                }
+            });
+            producers[t].start();
+        }
+
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+
+        drain(logger);
+
+        logger.shutdown();
+
+        assertEquals(0L, logger.getDroppedCount());
+        assertEquals(8000L, messages.size() + logger.getEvictedCount());
+    }
+
+    @Test
+    void shutdownClosesTheTimestampSource() throws InterruptedException {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final RingLogger logger = collecting()
+                .timestampSource(new TimestampSource() {
+                    @Override
+                    public long timestamp() {
+                        return System.nanoTime();
+                    }
+
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                })
+                .build();
+
+        logger.writeString(LogLevel.INFO, COMPONENT_ID, "before shutdown");
+        drain(logger);
+        logger.shutdown();
+
+        assertTrue(closed.get());
+        assertEquals(List.of("before shutdown"), messages);
+    }
+
+    @Test
+    void minimumLogLevelLeavesComponentsWithTheirOwnLevelAlone() {
+        final byte otherComponent = 2;
+        final byte runtimeComponent = 3;
+        final RingLogger logger = collecting()
+                .componentLogLevel(COMPONENT_ID, LogLevel.DEBUG)
+                .build();
+
+        logger.setComponentLogLevel(runtimeComponent, LogLevel.ERROR);
+        logger.setMinimumLogLevel(LogLevel.WARN);
+
+        assertEquals(LogLevel.DEBUG, logger.getComponentLogLevel(COMPONENT_ID));
+        assertEquals(LogLevel.WARN, logger.getComponentLogLevel(otherComponent));
+        assertEquals(LogLevel.ERROR, logger.getComponentLogLevel(runtimeComponent));
+
+        logger.clearComponentLogLevel(runtimeComponent);
+
+        assertEquals(LogLevel.WARN, logger.getComponentLogLevel(runtimeComponent));
+        logger.shutdown();
+    }
+}
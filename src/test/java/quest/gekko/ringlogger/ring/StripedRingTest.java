@@ -0,0 +1,19 @@
+package quest.gekko.ringlogger.ring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedRingTest {
+    @Test
+    void maxStripesLeavesEveryStripeRoomForAMaxSizeEntry() {
+        // A 32 KB entry needs a few bytes of frame on top, so each stripe takes 64 KB
+        assertEquals(256, StripedRing.maxStripes(16 * 1024 * 1024, 32 * 1024));
+        assertEquals(1, StripedRing.maxStripes(64 * 1024, 32 * 1024));
+        assertEquals(32, StripedRing.maxStripes(64 * 1024, 1024));
+
+        new StripedRing(StripedRing.maxStripes(64 * 1024, 1024), 64 * 1024, 1024);
+        assertThrows(IllegalArgumentException.class, () -> new StripedRing(64, 64 * 1024, 1024));
+    }
+}
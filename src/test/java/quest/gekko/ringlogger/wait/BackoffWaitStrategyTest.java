@@ -0,0 +1,41 @@
+package quest.gekko.ringlogger.wait;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BackoffWaitStrategyTest {
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void longIdleStretchKeepsParkingForTheLongestPark() {
+        final BackoffWaitStrategy strategy = new BackoffWaitStrategy(100, 10, MAX_PARK_NANOS);
+
+        assertEquals(1_000L, strategy.parkNanos(111));
+        assertEquals(2_000L, strategy.parkNanos(112));
+
+        for (final int idleCount : new int[]{121, 165, 174, 1_000, 1_000_000, Integer.MAX_VALUE}) {
+            assertEquals(MAX_PARK_NANOS, strategy.parkNanos(idleCount));
+        }
+    }
+
+    @Test
+    void longestParkThatIsNotAPowerOfTwoOfTheShortestIsReached() {
+        final BackoffWaitStrategy strategy = new BackoffWaitStrategy(0, 0, 1_500);
+
+        assertEquals(1_000L, strategy.parkNanos(1));
+        assertEquals(1_500L, strategy.parkNanos(2));
+        assertEquals(1_500L, strategy.parkNanos(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void longestPossibleParkDoesNotOverflow() {
+        final BackoffWaitStrategy strategy = new BackoffWaitStrategy(0, 0, Long.MAX_VALUE);
+
+        assertEquals(1_000L << 53, strategy.parkNanos(54));
+        assertEquals(Long.MAX_VALUE, strategy.parkNanos(55));
+        assertEquals(Long.MAX_VALUE, strategy.parkNanos(Integer.MAX_VALUE));
+    }
+}
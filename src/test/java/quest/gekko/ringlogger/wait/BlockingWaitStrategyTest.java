@@ -0,0 +1,21 @@
+package quest.gekko.ringlogger.wait;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingWaitStrategyTest {
+    @Test
+    void workPublishedBeforeTheSleeperIsSeenDoesNotWaitForTheTimeout() {
+        final BlockingWaitStrategy strategy = new BlockingWaitStrategy(TimeUnit.SECONDS.toNanos(10));
+        final long start = System.nanoTime();
+
+        // The producer published and signalled while nobody was asleep yet
+        strategy.signal();
+        strategy.idle(1, () -> true);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "parked despite pending work");
+    }
+}
@@ -0,0 +1,98 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+import quest.gekko.ringlogger.model.Arguments;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.TemplateRegistry;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsoleWriterTest {
+    private static final int TEMPLATE_ID = TemplateRegistry.getInstance().register("value {}");
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ConsoleWriter writer = new ConsoleWriter(Channels.newChannel(out), Channels.newChannel(new ByteArrayOutputStream()));
+
+    @Test
+    void doublesAreRenderedLikeDoubleToString() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final double[] values = new double[4000];
+        final double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                1.0, -1.0, 0.1, 0.3, 0.1 + 0.2, 100.0, 1e7, 9999999.0, 1e-3, 0.00099, 1e10, 1.5e-5, 123456789012.0,
+                1e22, 1e23, Double.MIN_VALUE, Double.MAX_VALUE, Double.MIN_NORMAL, Math.PI, Long.MAX_VALUE};
+        System.arraycopy(specials, 0, values, 0, specials.length);
+
+        for (int i = specials.length; i < values.length; i++) {
+            values[i] = switch (i % 4) {
+                case 0 -> random.nextLong(-10_000_000, 10_000_000) / 100.0;
+                case 1 -> random.nextLong(1, 1_000_000) * Math.pow(10, random.nextInt(-30, 30));
+                case 2 -> random.nextDouble(-1e6, 1e6);
+                default -> Double.longBitsToDouble(random.nextLong());
+            };
+        }
+
+        final StringBuilder expected = new StringBuilder();
+
+        for (final double value : values) {
+            writer.write(typed(ByteBuffer.allocate(Arguments.TEMPLATE_SIZE + Arguments.DOUBLE_SIZE)
+                    .put(Arguments.TAG_TEMPLATE).putInt(TEMPLATE_ID)
+                    .put(Arguments.TAG_DOUBLE).putDouble(value)));
+            expected.append("value ").append(value).append('\n');
+        }
+
+        assertEquals(expected.toString(), messages());
+    }
+
+    @Test
+    void unknownOrNegativeTemplateIdRendersAsAPlaceholder() {
+        writer.write(typed(ByteBuffer.allocate(Arguments.TEMPLATE_SIZE).put(Arguments.TAG_TEMPLATE).putInt(Integer.MAX_VALUE)));
+        writer.write(typed(ByteBuffer.allocate(Arguments.TEMPLATE_SIZE).put(Arguments.TAG_TEMPLATE).putInt(-1)));
+
+        assertEquals(Arguments.unknownTemplate(Integer.MAX_VALUE) + "\n" + Arguments.unknownTemplate(-1) + "\n", messages());
+    }
+
+    @Test
+    void malformedEntryIsDroppedWithoutGluingTheNextLineOntoIt() {
+        final ByteBuffer[] batch = {
+                plain("before"),
+                // Typed, but missing the template it must start with
+                typed(ByteBuffer.allocate(Arguments.LONG_SIZE).put(Arguments.TAG_LONG).putLong(5)),
+                plain("after")
+        };
+
+        writer.writeBatch(batch, batch.length);
+
+        assertEquals("before\nafter\n", messages());
+    }
+
+    /**
+     * The rendered lines with the timestamp, level and component prefixes cut off.
+     */
+    private String messages() {
+        final StringBuilder messages = new StringBuilder();
+
+        for (final String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            messages.append(line, line.lastIndexOf("] ") + 2, line.length()).append('\n');
+        }
+
+        return messages.toString();
+    }
+
+    private static ByteBuffer typed(final ByteBuffer message) {
+        return LogEntry.encode(0, LogLevel.INFO, (byte) 0, LogEntry.FLAG_TYPED, ThreadDictionary.NO_THREAD, 0,
+                message.array());
+    }
+
+    private static ByteBuffer plain(final String message) {
+        return LogEntry.encode(0, LogLevel.INFO, (byte) 0, (byte) 0, ThreadDictionary.NO_THREAD, 0,
+                message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+import quest.gekko.ringlogger.tools.LogDecoder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileChannelWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendingStartsAHeaderSectionWithItsOwnCalibration() throws IOException {
+        final Path file = directory.resolve("app.log");
+
+        for (final String message : List.of("first process", "second process")) {
+            try (FileChannelWriter writer = new FileChannelWriter(file, SyncPolicy.never())) {
+                // Monotonic timestamp, only meaningful with the calibration of this open
+                writer.write(LogEntry.encode(System.nanoTime(), LogLevel.INFO, (byte) 1, (byte) 0,
+                        ThreadDictionary.NO_THREAD, 0, message.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        // One header section per open, each starting with the magic number
+        final String raw = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertEquals(2L, raw.split("RLOG", -1).length - 1L);
+
+        final StringWriter text = new StringWriter();
+        new LogDecoder(true, new PrintWriter(text)).decode(file);
+        final List<String> lines = text.toString().lines().toList();
+
+        assertEquals(2, lines.size(), text.toString());
+        assertTrue(lines.get(0).endsWith("\"message\":\"first process\"}"), lines.get(0));
+        assertTrue(lines.get(1).endsWith("\"message\":\"second process\"}"), lines.get(1));
+
+        for (final String line : lines) {
+            final int start = line.indexOf("\"timestamp\":\"") + "\"timestamp\":\"".length();
+            final Instant timestamp = Instant.parse(line.substring(start, line.indexOf('"', start)));
+            assertTrue(Duration.between(timestamp, Instant.now()).abs().toMinutes() < 1, line);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GapDetectingWriterTest {
+    private final List<String> written = new ArrayList<>();
+
+    private final LogWriter writer = new GapDetectingWriter(new ThreadNameWriter(entry -> {
+        final LogEntry decoded = new LogEntry(entry);
+        final String kind = (decoded.getFlags() & LogEntry.FLAG_THREAD_NAME) != 0 ? "name "
+                : (decoded.getFlags() & LogEntry.FLAG_GAP) != 0 ? "gap " : "";
+        written.add(kind + decoded.getMessage());
+    }));
+
+    @Test
+    void recycledOrdinalIsAnnouncedAgainWithoutAFalseGap() {
+        final ThreadDictionary dictionary = ThreadDictionary.getInstance();
+        final int ordinal = dictionary.acquire("first-owner");
+
+        for (int sequence = 0; sequence < 5; sequence++) {
+            writer.write(entry(ordinal, sequence, sequence == 0, "first " + sequence));
+        }
+
+        // The first thread ended and a new one took its ordinal over
+        takeOver(dictionary, ordinal, "second-owner");
+
+        writer.write(entry(ordinal, 0, true, "second 0"));
+        writer.write(entry(ordinal, 1, false, "second 1"));
+
+        assertEquals(List.of("name first-owner", "first 0", "first 1", "first 2", "first 3", "first 4",
+                "name second-owner", "second 0", "second 1"), written);
+    }
+
+    @Test
+    void entriesDroppedBeforeTheNewOwnersFirstOneAreStillReported() {
+        final ThreadDictionary dictionary = ThreadDictionary.getInstance();
+        final int ordinal = dictionary.acquire("first-owner");
+
+        writer.write(entry(ordinal, 0, true, "first 0"));
+        takeOver(dictionary, ordinal, "second-owner");
+        writer.write(entry(ordinal, 2, true, "second 2"));
+
+        assertEquals(List.of("name first-owner", "first 0", "gap 2 entries lost between seq 0 and 2",
+                "name second-owner", "second 2"), written);
+    }
+
+    /**
+     * Releases the ordinal and acquires it again under a new name, handing back any ordinals
+     * other threads released before it.
+     */
+    private static void takeOver(final ThreadDictionary dictionary, final int ordinal, final String name) {
+        final List<Integer> others = new ArrayList<>();
+        dictionary.release(ordinal);
+
+        for (int acquired = dictionary.acquire(name); acquired != ordinal; acquired = dictionary.acquire(name)) {
+            others.add(acquired);
+        }
+
+        others.forEach(dictionary::release);
+    }
+
+    private static ByteBuffer entry(final int ordinal, final int sequence, final boolean threadStart, final String message) {
+        final byte flags = (byte) (LogEntry.FLAG_EPOCH_TIMESTAMP | (threadStart ? LogEntry.FLAG_THREAD_START : 0));
+        return LogEntry.encode(System.currentTimeMillis() * 1_000_000L, LogLevel.INFO, (byte) 1, flags,
+                (short) ordinal, sequence, message.getBytes(StandardCharsets.UTF_8));
+    }
+}
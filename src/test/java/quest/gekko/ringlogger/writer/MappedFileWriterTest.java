@@ -0,0 +1,127 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quest.gekko.ringlogger.model.LogEntry;
+import quest.gekko.ringlogger.model.LogLevel;
+import quest.gekko.ringlogger.model.ThreadDictionary;
+import quest.gekko.ringlogger.tools.LogDecoder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileWriterTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartResumesAfterExistingSegments() throws IOException {
+        writeRun("first run", 10);
+        writeRun("second run", 10);
+
+        // One segment per run; the segments mapped ahead but never used are gone
+        assertEquals(List.of("app-000000.log", "app-000001.log"), segmentNames());
+        assertEquals(20, decodedLines().size());
+    }
+
+    @Test
+    void restartSkipsCompressedSegments() throws IOException {
+        try (MappedFileWriter writer = new MappedFileWriter(directory, "app", SEGMENT_SIZE, false,
+                RotationPolicy.whenFull(), new SegmentCompressor(1))) {
+            writer.write(entry("compressed run"));
+        }
+
+        writeRun("raw run", 5);
+
+        assertEquals(List.of("app-000000.log.rlz", "app-000001.log"), segmentNames());
+        assertEquals(6, decodedLines().size());
+    }
+
+    @Test
+    void everySegmentNamesTheThreadsAnnouncedBeforeIt() throws IOException {
+        final ThreadNameWriter writer = new ThreadNameWriter(new MappedFileWriter(directory, "app", SEGMENT_SIZE, false,
+                RotationPolicy.maxBytes(1024)));
+        final int ordinal = ThreadDictionary.getInstance().acquire("order-gateway");
+
+        for (int i = 0; i < 100; i++) {
+            writer.write(LogEntry.encode(System.currentTimeMillis() * 1_000_000L, LogLevel.INFO, (byte) 1,
+                    LogEntry.FLAG_EPOCH_TIMESTAMP, (short) ordinal, i, ("entry " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        writer.close();
+        ThreadDictionary.getInstance().release(ordinal);
+
+        final List<String> segments = segmentNames();
+        assertTrue(segments.size() > 2, "expected several segments: " + segments);
+
+        // Decode the last segment alone: the announcement is only in the first one
+        final StringWriter text = new StringWriter();
+        new LogDecoder(false, new PrintWriter(text)).decode(directory.resolve(segments.get(segments.size() - 1)));
+
+        assertTrue(text.toString().lines().allMatch(line -> line.contains("[order-gateway]")), text.toString());
+    }
+
+    @Test
+    void timeBasedRotationHappensWhileIdle() throws IOException, InterruptedException {
+        final Path compressed = directory.resolve("app-000000.log.rlz");
+
+        try (MappedFileWriter writer = new MappedFileWriter(directory, "app", SEGMENT_SIZE, false,
+                RotationPolicy.maxAge(50, TimeUnit.MILLISECONDS), new SegmentCompressor(1))) {
+            writer.write(entry("before the pause"));
+            Thread.sleep(100);
+            writer.onIdle();
+
+            // Left behind and compressed without another entry arriving
+            for (int i = 0; i < 100 && !Files.exists(compressed); i++) {
+                Thread.sleep(50);
+            }
+
+            assertTrue(Files.exists(compressed), "expected the idle segment to be compressed: " + segmentNames());
+        }
+    }
+
+    private void writeRun(final String message, final int entries) {
+        try (MappedFileWriter writer = new MappedFileWriter(directory, "app", SEGMENT_SIZE, false)) {
+            for (int i = 0; i < entries; i++) {
+                writer.write(entry(message + " " + i));
+            }
+        }
+    }
+
+    private static ByteBuffer entry(final String message) {
+        return LogEntry.encode(System.currentTimeMillis() * 1_000_000L, LogLevel.INFO, (byte) 1, LogEntry.FLAG_EPOCH_TIMESTAMP,
+                ThreadDictionary.NO_THREAD, 0, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> segmentNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private List<String> decodedLines() throws IOException {
+        final StringWriter text = new StringWriter();
+        final LogDecoder decoder = new LogDecoder(false, new PrintWriter(text));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path file : files.sorted().toList()) {
+                decoder.decode(file);
+            }
+        }
+
+        return text.toString().lines().toList();
+    }
+}
@@ -0,0 +1,29 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentCompressorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void neverReplacesAnExistingCompressedSegment() throws IOException {
+        final Path segment = Files.write(directory.resolve("app-000000.log"), new byte[4096]);
+        final Path earlier = Files.writeString(directory.resolve("app-000000.log" + SegmentCompressor.EXTENSION), "earlier run");
+
+        try (SegmentCompressor compressor = new SegmentCompressor(1)) {
+            compressor.compress(segment, 4096);
+        }
+
+        assertEquals("earlier run", Files.readString(earlier));
+        assertTrue(Files.exists(segment), "raw segment must be kept when it cannot be compressed");
+    }
+}
@@ -0,0 +1,28 @@
+package quest.gekko.ringlogger.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncPolicyTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void intervalPolicySyncsWhileIdleOnceTheIntervalHasPassed() {
+        final SyncPolicy policy = SyncPolicy.every(10, TimeUnit.MILLISECONDS);
+
+        assertFalse(policy.shouldSyncWhenIdle(INTERVAL - 1));
+        assertTrue(policy.shouldSyncWhenIdle(INTERVAL));
+        assertTrue(policy.syncsOnClose());
+    }
+
+    @Test
+    void otherPoliciesOnlySyncAfterABatch() {
+        assertFalse(SyncPolicy.never().shouldSyncWhenIdle(Long.MAX_VALUE));
+        assertFalse(SyncPolicy.everyBytes(1).shouldSyncWhenIdle(Long.MAX_VALUE));
+        assertFalse(SyncPolicy.onError().shouldSyncWhenIdle(Long.MAX_VALUE));
+    }
+}